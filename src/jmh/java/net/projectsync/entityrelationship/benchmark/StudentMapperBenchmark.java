@@ -0,0 +1,130 @@
+package net.projectsync.entityrelationship.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import net.projectsync.entityrelationship.dto.AddressDTO;
+import net.projectsync.entityrelationship.dto.PhoneDTO;
+import net.projectsync.entityrelationship.dto.StudentCreateDTO;
+import net.projectsync.entityrelationship.dto.StudentDTO;
+import net.projectsync.entityrelationship.mapper.StudentMapper;
+import net.projectsync.entityrelationship.model.Address;
+import net.projectsync.entityrelationship.model.Phone;
+import net.projectsync.entityrelationship.model.Project;
+import net.projectsync.entityrelationship.model.Student;
+
+/*
+ * StudentMapper throughput at different phone / project fan-out (no database)
+ * Run with -prof gc to see the allocation rate per operation (gc.alloc.rate.norm)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentMapperBenchmark {
+
+    @Param({ "0", "10", "100" })
+    private int phones;
+
+    @Param({ "0", "5", "50" })
+    private int projects;
+
+    private Student student;
+    private StudentCreateDTO createDTO;
+
+    @Setup
+    public void setUp() {
+        student = newStudent(phones, projects);
+        createDTO = newCreateDTO(phones);
+    }
+
+    @Benchmark
+    public StudentDTO toDTO() {
+        return StudentMapper.toDTO(student);
+    }
+
+    @Benchmark
+    public Student toNewEntity() {
+        return StudentMapper.toNewEntity(createDTO);
+    }
+
+    // Detached, fully populated graph (what the mapper sees after fetching)
+    static Student newStudent(int phoneCount, int projectCount) {
+
+        Student s = new Student();
+        s.setId(1L);
+        s.setVersion(3L);
+        s.setFirstName("Ada");
+        s.setLastName("Lovelace");
+        s.setEmail("ada@example.org");
+
+        Address a = new Address();
+        a.setId(1L);
+        a.setVersion(1L);
+        a.setHouseName("Analytical House");
+        a.setStreetNo("12");
+        a.setCity("London");
+        a.setState("Greater London");
+        a.setCountry("UK");
+        s.setAddress(a);
+
+        for (int i = 0; i < phoneCount; i++) {
+            Phone p = new Phone();
+            p.setId((long) i + 1);
+            p.setVersion(0L);
+            p.setPhoneModel("model-" + i);
+            p.setPhoneNumber("+44-20-0000-" + i);
+            s.addPhone(p);
+        }
+
+        List<Project> list = new ArrayList<>(projectCount);
+        for (int i = 0; i < projectCount; i++) {
+            Project p = new Project();
+            p.setId((long) i + 1);
+            p.setVersion(0L);
+            p.setProjectName("project-" + i);
+            list.add(p);
+        }
+        s.getProjects().addAll(list);
+        return s;
+    }
+
+    static StudentCreateDTO newCreateDTO(int phoneCount) {
+
+        StudentCreateDTO dto = new StudentCreateDTO();
+        dto.setFirstName("Ada");
+        dto.setLastName("Lovelace");
+        dto.setEmail("ada@example.org");
+
+        AddressDTO a = new AddressDTO();
+        a.setHouseName("Analytical House");
+        a.setStreetNo("12");
+        a.setCity("London");
+        a.setState("Greater London");
+        a.setCountry("UK");
+        dto.setAddress(a);
+
+        List<PhoneDTO> phoneDTOs = new ArrayList<>(phoneCount);
+        for (int i = 0; i < phoneCount; i++) {
+            PhoneDTO p = new PhoneDTO();
+            p.setPhoneModel("model-" + i);
+            p.setPhoneNumber("+44-20-0000-" + i);
+            phoneDTOs.add(p);
+        }
+        dto.setPhones(phoneDTOs);
+        return dto;
+    }
+}
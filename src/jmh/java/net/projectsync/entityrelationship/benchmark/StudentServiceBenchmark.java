@@ -0,0 +1,130 @@
+package net.projectsync.entityrelationship.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import net.projectsync.entityrelationship.SpringbootEntityRelationshipApplication;
+import net.projectsync.entityrelationship.dto.ProjectDTO;
+import net.projectsync.entityrelationship.dto.StudentCreateDTO;
+import net.projectsync.entityrelationship.dto.StudentDTO;
+import net.projectsync.entityrelationship.dto.StudentUpdateDTO;
+import net.projectsync.entityrelationship.service.StudentService;
+
+/*
+ * End-to-end StudentService benchmarks (transaction + Hibernate + JDBC)
+ *
+ * - Spring context without web server, embedded H2 in PostgreSQL mode
+ * - Numbers are for regression tracking between commits,
+ *   not an absolute measure of production latency on PostgreSQL
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentServiceBenchmark {
+
+    private static final int SEEDED_STUDENTS = 200;
+
+    @Param({ "2", "20" })
+    private int phones;
+
+    @Param({ "2", "20" })
+    private int projects;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private StudentCreateDTO createDTO;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        // passed as command line arguments so they override application.properties
+        context = new SpringApplicationBuilder(SpringbootEntityRelationshipApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                                + "INIT=CREATE SCHEMA IF NOT EXISTS entityrelationship",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--logging.level.root=WARN");
+
+        studentService = context.getBean(StudentService.class);
+
+        // shared projects, referenced by id from every student
+        StudentCreateDTO seed = StudentMapperBenchmark.newCreateDTO(phones);
+        List<ProjectDTO> projectDTOs = new ArrayList<>(projects);
+        for (int i = 0; i < projects; i++) {
+            ProjectDTO p = new ProjectDTO();
+            p.setProjectName("project-" + i);
+            projectDTOs.add(p);
+        }
+        seed.setProjects(projectDTOs);
+        StudentDTO first = studentService.createStudent(seed);
+
+        createDTO = StudentMapperBenchmark.newCreateDTO(phones);
+        createDTO.setProjects(first.getProjects().stream()
+                .map(p -> new ProjectDTO(p.getId(), null, null))
+                .toList());
+
+        ids = new ArrayList<>(SEEDED_STUDENTS);
+        ids.add(first.getId());
+        for (int i = 1; i < SEEDED_STUDENTS; i++) {
+            ids.add(studentService.createStudent(createDTO).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private Long randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    @Benchmark
+    public StudentDTO create() {
+        return studentService.createStudent(createDTO);
+    }
+
+    @Benchmark
+    public StudentDTO getById() {
+        return studentService.getById(randomId());
+    }
+
+    @Benchmark
+    public StudentDTO getFull() {
+        return studentService.getFull(randomId());
+    }
+
+    @Benchmark
+    public StudentDTO patchFirstName() {
+        StudentUpdateDTO dto = new StudentUpdateDTO();
+        dto.setFirstName("Ada-" + ThreadLocalRandom.current().nextInt(1000));
+        return studentService.patch(randomId(), dto);
+    }
+}
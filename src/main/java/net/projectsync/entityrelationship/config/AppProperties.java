@@ -0,0 +1,199 @@
+package net.projectsync.entityrelationship.config;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+/*
+ * Application specific settings (prefix "app" in application.properties)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app")
+public class AppProperties {
+
+    private final Paging paging = new Paging();
+    private final Read read = new Read();
+    private final Bulk bulk = new Bulk();
+    private final Datasource datasource = new Datasource();
+    private final Instrumentation instrumentation = new Instrumentation();
+    private final Execution execution = new Execution();
+    private final Reactive reactive = new Reactive();
+    private final Write write = new Write();
+    private final Cache cache = new Cache();
+    private final Changes changes = new Changes();
+    private final Events events = new Events();
+    private final Addresses addresses = new Addresses();
+    private final Projects projects = new Projects();
+
+    // ---------- keyset pagination / NDJSON streaming ----------
+    @Getter
+    @Setter
+    public static class Paging {
+        private int defaultLimit = 100;			// used when ?limit is absent
+        private int maxLimit = 1000;			// upper bound for ?limit
+        private int streamPageSize = 500;		// rows fetched per round trip by /stream
+
+        // ?limit of every list endpoint: absent or <= 0 -> default-limit, capped at max-limit
+        public int resolveLimit(Integer limit) {
+            if (limit == null || limit <= 0) {
+                return defaultLimit;
+            }
+            return Math.min(limit, maxLimit);
+        }
+    }
+
+    // ---------- POST /api/v1/students/bulk ----------
+    @Getter
+    @Setter
+    public static class Bulk {
+        private int chunkSize = 1000;			// rows per transaction
+        private int flushInterval = 50;			// rows per flush()/clear(), keep equal to hibernate.jdbc.batch_size
+        private int maxPatchItems = 1000;		// items per PATCH /api/v1/students (one transaction)
+    }
+
+    // ---------- address storage (see AddressResolver) ----------
+    @Getter
+    @Setter
+    public static class Addresses {
+        private boolean shared = false;			// identical addresses -> one canonical row referenced by every student
+        private long cacheSize = 10_000;		// content hash -> canonical address id entries
+    }
+
+    // ---------- project lookup by name (see ProjectResolver) ----------
+    @Getter
+    @Setter
+    public static class Projects {
+        private long nameCacheSize = 10_000;	// normalized name -> project id entries
+    }
+
+    // ---------- read replica (see ReadReplicaConfig) ----------
+    @Getter
+    @Setter
+    public static class Datasource {
+        private final Replica replica = new Replica();
+    }
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;						// unset -> single DataSource, no routing
+        private String username;				// unset -> spring.datasource.username
+        private String password;				// unset -> spring.datasource.password
+    }
+
+    // ---------- per-request SQL instrumentation (see instrumentation package) ----------
+    @Getter
+    @Setter
+    public static class Instrumentation {
+        private boolean enabled = true;
+        private boolean responseHeaders = false;	// X-Sql-* headers, enabled by the dev profile
+        private boolean enforceBudgets = false;		// true -> @QueryBudget violations fail the request (tests)
+    }
+
+    // ---------- request execution (see execution package) ----------
+    @Getter
+    @Setter
+    public static class Execution {
+        private ExecutionMode mode = ExecutionMode.BLOCKING;
+        private int jdbcThreads = 10;			// ASYNC pool size, the Hikari pool is larger (see ConnectionPoolSizing)
+        private int queueCapacity = 200;		// ASYNC requests waiting for a JDBC thread before 503
+        private int connectionHeadroom = 6;		// Hikari connections on top of jdbc-threads, for work outside the executor
+    }
+
+    public enum ExecutionMode {
+        BLOCKING,		// handler runs on the Tomcat worker thread
+        ASYNC,			// handler work runs on the bounded JDBC executor, servlet thread is released
+        VIRTUAL			// Tomcat runs requests on virtual threads (Java 21+ runtime)
+    }
+
+    // ---------- reactive read API (see reactive package) ----------
+    @Getter
+    @Setter
+    public static class Reactive {
+        private boolean enabled = false;		// opt-in: starts Netty + an R2DBC pool next to Tomcat / Hikari
+        private int port = 8081;				// Netty server, next to Tomcat on server.port
+        private String schema;					// table prefix, same as hibernate.default_schema
+        private int windowSize = 500;			// student ids per keyset window (3 queries per window)
+        private final R2dbc r2dbc = new R2dbc();
+    }
+
+    @Getter
+    @Setter
+    public static class R2dbc {
+        private String url;						// e.g. r2dbc:postgresql://localhost:5432/mydb
+        private String username;
+        private String password;
+        private int poolMaxSize = 20;
+    }
+
+    // ---------- PUT / PATCH ----------
+    @Getter
+    @Setter
+    public static class Write {
+        private boolean precheck = true;		// compare client versions with narrow queries before loading the aggregate
+        private final Retry retry = new Retry();
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+        private int maxAttempts = 3;			// 1 = no retry; applies to PATCH without any version
+        private Duration initialBackoff = Duration.ofMillis(20);
+        private Duration maxBackoff = Duration.ofMillis(200);
+    }
+
+    // ---------- read paths ----------
+    @Getter
+    @Setter
+    public static class Read {
+        private FullFetchMode fullFetch = FullFetchMode.PROJECTION;
+        private int inClauseSize = 1000;		// max ids per IN (...) when batch fetching associations of a list
+        private Set<String> directJson = new HashSet<>();	// list endpoints serialized from the entities (see StudentListView)
+    }
+
+    public enum FullFetchMode {
+        ENTITY,			// findBase + fetchPhones + fetchProjects, then map managed entities
+        PROJECTION		// 2 scalar queries mapped straight into StudentDTO
+    }
+
+    // ---------- StudentDTO cache (see StudentDTOCache) ----------
+    @Getter
+    @Setter
+    public static class Cache {
+        private final StudentCache student = new StudentCache();
+    }
+
+    @Getter
+    @Setter
+    public static class StudentCache {
+        private boolean enabled = true;
+        private long maxWeight = 50_000;						// weight of an entry = 1 + address + phones + projects
+        private Duration expireAfterWrite = Duration.ofMinutes(10);	// bounds staleness that no event reports (replica lag, other nodes)
+    }
+
+    // ---------- GET /api/v1/students/changes (see StudentChangeLog) ----------
+    @Getter
+    @Setter
+    public static class Changes {
+        private int batchSize = 500;							// max rows per poll
+        private Duration relayInterval = Duration.ofMillis(200);	// rows committed by other nodes get their feed_seq within this
+        private Duration maxWait = Duration.ofSeconds(25);		// upper bound for ?wait (below the servlet async timeout)
+    }
+
+    // ---------- SSE push channel (see sse package) ----------
+    @Getter
+    @Setter
+    public static class Events {
+        private Duration coalesceWindow = Duration.ofMillis(200);	// changes of one student within a window -> one entry
+        private int maxBatch = 500;								// max entries per SSE message
+        private int subscriberQueue = 64;						// pending messages per subscriber, overflow -> subscriber dropped
+        private int maxSubscribers = 10_000;
+        private int senderThreads = 4;							// write to the subscriber connections
+        private Duration heartbeat = Duration.ofSeconds(15);	// SSE comment, detects closed connections
+        private Duration timeout = Duration.ofMinutes(30);		// connection lifetime, EventSource reconnects by itself
+    }
+}
@@ -0,0 +1,23 @@
+package net.projectsync.entityrelationship.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+ * Picks the target DataSource per transaction:
+ *   @Transactional(readOnly = true) -> REPLICA
+ *   everything else                 -> PRIMARY
+ *
+ * Must be wrapped in a LazyConnectionDataSourceProxy: the transaction manager asks for
+ * a connection before the read-only flag is bound to the thread, the proxy delays the
+ * real getConnection() until the first statement
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+    }
+}
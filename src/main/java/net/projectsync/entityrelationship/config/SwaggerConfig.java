@@ -2,12 +2,20 @@ package net.projectsync.entityrelationship.config;
 
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
+import org.springdoc.core.SpringDocUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import net.projectsync.entityrelationship.dto.StudentDTO;
+import net.projectsync.entityrelationship.mapper.StudentListView;
 
 @Configuration
 public class SwaggerConfig {
 
+    static {
+        // list endpoints return StudentListView, serialized as a StudentDTO array
+        SpringDocUtils.getConfig().replaceWithClass(StudentListView.class, StudentDTO[].class);
+    }
+
     @Bean
     public OpenAPI apiInfo() {
         return new OpenAPI()
@@ -0,0 +1,27 @@
+package net.projectsync.entityrelationship.controller;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import net.projectsync.entityrelationship.dto.CacheRegionStatsDTO;
+import net.projectsync.entityrelationship.service.CacheStatsService;
+
+@RestController
+@RequestMapping("/api/v1/cache")
+@RequiredArgsConstructor
+@Tag(name = "Cache API", description = "Second-level cache statistics")
+public class CacheController {
+
+	private final CacheStatsService cacheStatsService;
+
+	@Operation(summary = "Hit / miss statistics per second-level cache region")
+	@GetMapping("/stats")
+	public List<CacheRegionStatsDTO> stats() {
+		return cacheStatsService.getRegionStats();
+	}
+}
@@ -0,0 +1,47 @@
+package net.projectsync.entityrelationship.controller;
+
+import java.util.Map;
+import javax.persistence.OptimisticLockException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import net.projectsync.entityrelationship.service.PreconditionFailedException;
+
+/*
+ * Version conflicts are client visible states, not server errors:
+ *   stale version in the body (checkVersion)            -> 409
+ *   lost race at commit, retries exhausted               -> 409
+ *   If-Match does not match the current ETag             -> 412
+ *   project renamed to a name another project holds      -> 409 (DuplicateKeyException)
+ *   unique constraint hit at flush / commit              -> 409 (DataIntegrityViolationException),
+ *     e.g. two requests creating the same project name at once (uk_project_normalized_name)
+ */
+@RestControllerAdvice
+public class OptimisticLockAdvice {
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, String>> preconditionFailed(PreconditionFailedException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler({ OptimisticLockException.class, OptimisticLockingFailureException.class, DuplicateKeyException.class })
+    public ResponseEntity<Map<String, String>> conflict(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", String.valueOf(e.getMessage())));
+    }
+
+    // The driver message carries SQL details: only the constraint name is returned
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, String>> constraintViolation(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException
+                ? ((ConstraintViolationException) e.getCause()).getConstraintName() : null;
+        String msg = constraint != null
+                ? "Conflicts with existing data (constraint " + constraint + ")"
+                : "Conflicts with existing data";
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", msg));
+    }
+}
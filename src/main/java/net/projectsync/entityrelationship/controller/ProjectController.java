@@ -0,0 +1,42 @@
+package net.projectsync.entityrelationship.controller;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import net.projectsync.entityrelationship.dto.ProjectSummaryDTO;
+import net.projectsync.entityrelationship.execution.RequestExecutor;
+import net.projectsync.entityrelationship.instrumentation.QueryBudget;
+import net.projectsync.entityrelationship.service.ProjectService;
+
+@RestController
+@RequestMapping("/api/v1/projects")
+@RequiredArgsConstructor
+@Tag(name = "Project API", description = "Projects with student counts (reporting)")
+public class ProjectController {
+
+	private final ProjectService projectService;
+	private final RequestExecutor requestExecutor;
+
+	// Keyset page, next cursor = id of the last element
+	@Operation(summary = "Get projects with their student count (keyset paginated)")
+	@GetMapping
+	@QueryBudget(statements = 1)
+	public CompletableFuture<List<ProjectSummaryDTO>> getPage(@RequestParam(required = false) Long after,
+															  @RequestParam(required = false) Integer limit) {
+		return requestExecutor.submit(() -> projectService.getPage(after, limit));
+	}
+
+	@Operation(summary = "Get the top N projects by number of students")
+	@GetMapping("/top")
+	@QueryBudget(statements = 1)
+	public CompletableFuture<List<ProjectSummaryDTO>> getTop(@RequestParam(defaultValue = "10") Integer n) {
+		return requestExecutor.submit(() -> projectService.getTop(n));
+	}
+}
@@ -1,7 +1,16 @@
 package net.projectsync.entityrelationship.controller;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import javax.servlet.http.HttpServletRequest;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -9,15 +18,41 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import net.projectsync.entityrelationship.config.AppProperties;
+import net.projectsync.entityrelationship.dto.BulkDeleteResultDTO;
+import net.projectsync.entityrelationship.dto.BulkPatchResultDTO;
+import net.projectsync.entityrelationship.dto.BulkResultDTO;
 import net.projectsync.entityrelationship.dto.ProjectDTO;
+import net.projectsync.entityrelationship.dto.StudentBulkDeleteDTO;
+import net.projectsync.entityrelationship.dto.StudentChangesDTO;
 import net.projectsync.entityrelationship.dto.StudentCreateDTO;
 import net.projectsync.entityrelationship.dto.StudentDTO;
+import net.projectsync.entityrelationship.dto.StudentPatchItemDTO;
 import net.projectsync.entityrelationship.dto.StudentUpdateDTO;
+import net.projectsync.entityrelationship.execution.RequestExecutor;
+import net.projectsync.entityrelationship.instrumentation.QueryBudget;
+import net.projectsync.entityrelationship.mapper.StudentJsonWriter;
+import net.projectsync.entityrelationship.mapper.StudentListView;
+import net.projectsync.entityrelationship.service.OptimisticLocks;
+import net.projectsync.entityrelationship.service.OptimisticRetry;
+import net.projectsync.entityrelationship.service.StudentBulkService;
+import net.projectsync.entityrelationship.service.StudentChangeLog;
+import net.projectsync.entityrelationship.service.StudentChangeNotifier;
+import net.projectsync.entityrelationship.service.StudentDTOCache;
+import net.projectsync.entityrelationship.service.StudentETags;
 import net.projectsync.entityrelationship.service.StudentService;
 
 @RestController
@@ -27,78 +62,216 @@ import net.projectsync.entityrelationship.service.StudentService;
 public class StudentController {
 
 	private final StudentService studentService;
+	private final StudentBulkService studentBulkService;
+	private final AppProperties appProperties;
+	private final ObjectMapper objectMapper;
+	private final RequestExecutor requestExecutor;		// app.execution.mode: inline (BLOCKING / VIRTUAL) or JDBC executor (ASYNC)
+	private final StudentDTOCache studentDTOCache;
+	private final StudentChangeLog studentChangeLog;
+	private final StudentChangeNotifier studentChangeNotifier;
+	private final OptimisticRetry optimisticRetry;		// commit-time conflicts of commuting PATCHes
 
 	// ---------- CREATE ----------
 	@Operation(summary = "Create a student")
 	@PostMapping
-	public StudentDTO create(@RequestBody StudentCreateDTO dto) {
-		return studentService.createStudent(dto);
+	public CompletableFuture<StudentDTO> create(@RequestBody StudentCreateDTO dto) {
+		return requestExecutor.submit(() -> studentService.createStudent(dto));
+	}
+
+	// Body: JSON array or NDJSON (one StudentCreateDTO per line)
+	// Rows are read lazily from the request and persisted in chunked transactions
+	// Stays on the servlet thread (not RequestExecutor): parsing waits on the upload, a JDBC thread would
+	// idle for the network. Its connection (one per chunk) is part of app.execution.connection-headroom
+	@Operation(summary = "Create students in bulk (JSON array or NDJSON)")
+	@PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+	public List<BulkResultDTO> bulkCreate(HttpServletRequest request) throws IOException {
+		try (JsonParser parser = objectMapper.getFactory().createParser(request.getInputStream())) {
+			JsonToken first = parser.nextToken();
+			if (first == JsonToken.START_ARRAY) {
+				first = parser.nextToken();		// JSON array: iterate over its elements
+			}
+			if (first == null || first == JsonToken.END_ARRAY) {
+				return List.of();				// empty body or empty array
+			}
+			MappingIterator<StudentCreateDTO> rows = objectMapper.readerFor(StudentCreateDTO.class).readValues(parser);
+			return studentBulkService.createAll(rows);
+		}
 	}
 
 	// ---------- READ ----------
 	// LAZY Loading -> No inner joins except Many-to-Many
 	@Operation(summary = "Get student by ID")
 	@GetMapping("/{id}")
-	public StudentDTO getById(@PathVariable Long id) {
-		return studentService.getById(id);
+	public CompletableFuture<ResponseEntity<StudentDTO>> getById(@PathVariable Long id,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return requestExecutor.submit(() -> conditionalGet(id, ifNoneMatch, studentService::getById));
 	}
 
-	@Operation(summary = "Get all students")
+	// Without parameters the whole table is returned (legacy behaviour)
+	// With ?after and/or ?limit a keyset page is returned, next cursor = id of the last element
+	@Operation(summary = "Get all students (keyset paginated when 'after' or 'limit' is given)")
 	@GetMapping
-	public List<StudentDTO> getAll() {
-		return studentService.getAll();
+	public CompletableFuture<StudentListView> getAll(@RequestParam(required = false) Long after,
+													  @RequestParam(required = false) Integer limit) {
+		if (after == null && limit == null) {
+			return requestExecutor.submit(studentService::getAll);
+		}
+		return requestExecutor.submit(() -> studentService.getPage(after, limit));
+	}
+
+	// q: terms separated by spaces / punctuation, every term must match (AND) as a prefix of
+	// a first name, last name, email or project name token, e.g. ?q=ann alp
+	@Operation(summary = "Search students by name, email and project name prefixes")
+	@GetMapping("/search")
+	@QueryBudget(statements = 3)		// students + address, phones, projects (limit <= app.read.in-clause-size)
+	public CompletableFuture<StudentListView> search(@RequestParam String q,
+													  @RequestParam(required = false) Integer limit) {
+		return requestExecutor.submit(() -> studentService.search(q, limit));
+	}
+
+	// Change feed (outbox): mutations with seq > since, in commit order; next poll uses ?since=<next>
+	// wait > 0: long poll, answers as soon as a change is published (StudentChangeRelay) or after wait seconds (empty batch)
+	@Operation(summary = "Changes of students since a sequence number (long poll with ?wait=seconds)")
+	@GetMapping("/changes")
+	public CompletableFuture<StudentChangesDTO> changes(@RequestParam(defaultValue = "0") Long since,
+														@RequestParam(required = false) Integer limit,
+														@RequestParam(name = "wait", defaultValue = "0") int waitSeconds) {
+		Duration wait = Duration.ofSeconds(Math.max(0, waitSeconds));
+		if (wait.compareTo(appProperties.getChanges().getMaxWait()) > 0) {
+			wait = appProperties.getChanges().getMaxWait();
+		}
+		if (wait.isZero()) {
+			return requestExecutor.submit(() -> studentChangeLog.read(since, limit));
+		}
+		CompletableFuture<Void> signal = studentChangeNotifier.nextPublished(wait);
+		return requestExecutor.submit(() -> studentChangeLog.read(since, limit))
+				.thenCompose(batch -> {
+					if (!batch.getChanges().isEmpty()) {
+						signal.complete(null);		// unregisters the waiter
+						return CompletableFuture.completedFuture(batch);
+					}
+					// async: the signal completes on the relay or a timer thread, the read must not run there
+					return signal.thenComposeAsync(v -> requestExecutor.submit(() -> studentChangeLog.read(since, limit)));
+				});
+	}
+
+	// Pages through the table with the keyset query, one read transaction per page,
+	// and writes one JSON document per line. Memory is bounded by the page size.
+	@Operation(summary = "Stream all students as NDJSON")
+	@GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public StreamingResponseBody stream(@RequestParam(required = false) Long after) {
+		AppProperties.Paging paging = appProperties.getPaging();
+		int pageSize = paging.resolveLimit(paging.getStreamPageSize());
+		return out -> {
+			JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+			generator.setRootValueSeparator(null);
+
+			StudentJsonWriter writer = new StudentJsonWriter();		// shared by all pages: projects are rendered once per stream
+
+			Long cursor = after;
+			StudentListView page;
+			do {
+				page = studentService.getPage(cursor, pageSize);
+				page.writeTo(generator, writer, true);
+				generator.flush();
+				if (!page.isEmpty()) {
+					cursor = page.lastId();
+				}
+			} while (page.size() == pageSize);
+		};
 	}
 
 	// ---------- UPDATE ----------
 	@Operation(summary = "Update student by ID")
 	@PutMapping("/{id}")
-	public StudentDTO update(@PathVariable Long id, @RequestBody StudentUpdateDTO dto) {
-		return studentService.update(id, dto);
+	public CompletableFuture<StudentDTO> update(@PathVariable Long id, @RequestBody StudentUpdateDTO dto,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		return requestExecutor.submit(() -> studentService.update(id, dto, ifMatch));
 	}
 
 	// ---------- PATCH ----------
 	@Operation(summary = "Partial update student")
 	@PatchMapping("/{id}")
-	public StudentDTO patch(@PathVariable Long id, @RequestBody StudentUpdateDTO dto) {
-	    return studentService.patch(id, dto);
+	public CompletableFuture<StudentDTO> patch(@PathVariable Long id, @RequestBody StudentUpdateDTO dto,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+	    // PATCH without any version commutes: retried on a commit-time conflict (app.write.retry.*)
+	    boolean commutes = ifMatch == null && !OptimisticLocks.carriesVersions(dto);
+	    return requestExecutor.submit(() -> optimisticRetry.execute("Student", commutes, () -> studentService.patch(id, dto, ifMatch)));
+	}
+	
+	// Body: [{"id": 1, "version": 3, "email": "..."}, ...]
+	// One transaction, per-item result: UPDATED / CONFLICT / NOT_FOUND / FAILED (see StudentService.patchAll)
+	@Operation(summary = "Partial update of many students in one transaction")
+	@PatchMapping
+	public CompletableFuture<List<BulkPatchResultDTO>> bulkPatch(@RequestBody List<StudentPatchItemDTO> items) {
+		return requestExecutor.submit(() -> studentService.patchAll(items));
 	}
 	
 	// ---------- DELETE ----------
 	@Operation(summary = "Delete student by ID")
 	@DeleteMapping("/{id}")
-	public void delete(@PathVariable Long id) {
-		studentService.delete(id);
+	public CompletableFuture<Void> delete(@PathVariable Long id) {
+		return requestExecutor.run(() -> studentService.delete(id));
 	}
 	
+	// Body: {"ids": [...]} or {"projectName": "..."}
+	// Set-based DELETE statements in one transaction, no entity is loaded
+	@Operation(summary = "Delete students in bulk by ids or by project name")
+	@DeleteMapping
+	public CompletableFuture<BulkDeleteResultDTO> bulkDelete(@RequestBody StudentBulkDeleteDTO dto) {
+		if ((dto.getIds() == null) == (dto.getProjectName() == null)) {
+			throw new IllegalArgumentException("Exactly one of 'ids' or 'projectName' is required");
+		}
+		if (dto.getIds() != null) {
+			return requestExecutor.submit(() -> studentBulkService.deleteAll(dto.getIds()));
+		}
+		return requestExecutor.submit(() -> studentBulkService.deleteByProject(dto.getProjectName()));
+	}
+
 	// ---------- JOIN CASES ----------
 	// EAGER Loading -> Has inner joins
 	@Operation(summary = "Get student with Address, Phones, Projects")
 	@GetMapping("/{id}/full")
-	public StudentDTO getFull(@PathVariable Long id) {
-		return studentService.getFull(id);
+	public CompletableFuture<ResponseEntity<StudentDTO>> getFull(@PathVariable Long id,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return requestExecutor.submit(() -> conditionalGet(id, ifNoneMatch, studentService::getFull));
+	}
+
+	// One version query first: If-None-Match matching the current ETag -> 304, the graph is not loaded
+	// Otherwise 200 with the ETag of the returned body (a cached DTO not matching the current ETag is reloaded)
+	private ResponseEntity<StudentDTO> conditionalGet(Long id, String ifNoneMatch, Function<Long, StudentDTO> loader) {
+		String current = studentService.getETag(id);					// EntityNotFoundException for unknown ids
+		if (ifNoneMatch != null && StudentETags.matches(ifNoneMatch, current, true)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+		}
+		StudentDTO dto = studentDTOCache.get(id, current, loader);		// same cached DTO for /{id} and /{id}/full
+		return ResponseEntity.ok().eTag(StudentETags.of(dto)).body(dto);
 	}
 
 	@Operation(summary = "Get students by project name")
+	@QueryBudget(statements = 3, statementsPerSlice = 2)
 	@GetMapping("/project/{name}")
-	public List<StudentDTO> getByProject(@PathVariable String name) {
-		return studentService.getByProject(name);
+	public CompletableFuture<StudentListView> getByProject(@PathVariable String name) {
+		return requestExecutor.submit(() -> studentService.getByProject(name));
 	}
 
 	@Operation(summary = "Get students with phones")
+	@QueryBudget(statements = 3, statementsPerSlice = 2)	// students + address, phones, projects (+ phones, projects per further 1000 students)
 	@GetMapping("/with-phones")
-	public List<StudentDTO> withPhones() {
-		return studentService.withPhones();
+	public CompletableFuture<StudentListView> withPhones() {
+		return requestExecutor.submit(studentService::withPhones);
 	}
 
 	@Operation(summary = "Get students without phones")
+	@QueryBudget(statements = 3, statementsPerSlice = 2)
 	@GetMapping("/without-phones")
-	public List<StudentDTO> withoutPhones() {
-		return studentService.withoutPhones();
+	public CompletableFuture<StudentListView> withoutPhones() {
+		return requestExecutor.submit(studentService::withoutPhones);
 	}
 
 	@Operation(summary = "Get projects of a student")
 	@GetMapping("/{id}/projects")
-	public List<ProjectDTO> studentProjects(@PathVariable Long id) {
-		return studentService.getProjects(id);
+	public CompletableFuture<List<ProjectDTO>> studentProjects(@PathVariable Long id) {
+		return requestExecutor.submit(() -> studentService.getProjects(id));
 	}
 }
@@ -0,0 +1,53 @@
+package net.projectsync.entityrelationship.controller;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import net.projectsync.entityrelationship.service.StudentChangedEvent;
+import net.projectsync.entityrelationship.sse.StudentEventHub;
+
+// Server-Sent Events: event "students", data = JSON array of {id, type}
+// No database access: connections are served by StudentEventHub only
+@RestController
+@RequestMapping("/api/v1/students")
+@RequiredArgsConstructor
+@Tag(name = "Student events", description = "Push notifications of committed student changes (SSE)")
+public class StudentEventController {
+
+	private final StudentEventHub studentEventHub;
+
+	@Operation(summary = "Changes of one student")
+	@GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter studentEvents(@PathVariable Long id) {
+		return subscribe(Set.of(id), null);
+	}
+
+	// ?ids=1,2,3 and / or ?types=UPDATED,DELETED, no filter -> every change
+	@Operation(summary = "Changes of all students, optionally filtered by ids and change types")
+	@GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter events(@RequestParam(required = false) List<Long> ids,
+							 @RequestParam(required = false) List<StudentChangedEvent.Type> types) {
+		return subscribe(ids == null || ids.isEmpty() ? null : Set.copyOf(ids),
+				types == null || types.isEmpty() ? null : Set.copyOf(types));
+	}
+
+	private SseEmitter subscribe(Set<Long> ids, Set<StudentChangedEvent.Type> types) {
+		SseEmitter emitter = studentEventHub.subscribe(ids, types);
+		if (emitter == null) {
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many event subscribers");
+		}
+		return emitter;
+	}
+}
@@ -0,0 +1,13 @@
+package net.projectsync.entityrelationship.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Rows deleted per table (students_projects rows go with their student)
+@Getter
+@Setter
+public class BulkDeleteResultDTO {
+    private int students;
+    private int phones;
+    private int addresses;				// addresses no longer referenced by any student
+}
@@ -0,0 +1,17 @@
+package net.projectsync.entityrelationship.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BulkPatchResultDTO {
+
+    public enum Status { UPDATED, CONFLICT, NOT_FOUND, FAILED }
+
+    private int index;				// position of the item in the request body
+    private Long id;				// id of the student as sent
+    private Status status;
+    private Long version;			// new student version (UPDATED only)
+    private String error;
+}
@@ -0,0 +1,16 @@
+package net.projectsync.entityrelationship.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BulkResultDTO {
+
+    public enum Status { CREATED, FAILED }
+
+    private int index;				// position of the row in the request body
+    private Long id;				// id of the created student (null when FAILED)
+    private Status status;
+    private String error;
+}
@@ -0,0 +1,15 @@
+package net.projectsync.entityrelationship.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CacheRegionStatsDTO {
+    private String region;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private long elementCountInMemory;		// -1 when the provider does not report it
+    private double hitRatio;
+}
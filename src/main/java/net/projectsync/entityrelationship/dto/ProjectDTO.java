@@ -1,10 +1,14 @@
 package net.projectsync.entityrelationship.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor		// used by JPQL constructor expressions (SELECT new ...ProjectDTO(id, version, projectName))
 public class ProjectDTO {
     private Long id;
     private Long version;
@@ -0,0 +1,15 @@
+package net.projectsync.entityrelationship.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Outcome of ProjectService.mergeDuplicates (ProjectMergeRunner, profile merge-projects)
+@Getter
+@Setter
+public class ProjectMergeResultDTO {
+    private int names;					// normalized names held by more than one project
+    private int projectsMerged;			// duplicate projects deleted
+    private int linksMoved;				// students_projects rows re-pointed to the surviving project
+    private int studentsAffected;		// students that were linked to a duplicate
+    private int projectsNormalized;		// projects whose normalized_name was filled / corrected
+}
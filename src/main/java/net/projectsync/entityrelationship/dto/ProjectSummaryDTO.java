@@ -0,0 +1,17 @@
+package net.projectsync.entityrelationship.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectSummaryDTO {
+    private Long id;
+    private Long version;
+    private String projectName;
+    private long studentCount;
+}
@@ -0,0 +1,13 @@
+package net.projectsync.entityrelationship.dto;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+// Exactly one of ids / projectName
+@Getter
+@Setter
+public class StudentBulkDeleteDTO {
+    private List<Long> ids;				// delete these students
+    private String projectName;			// delete every student linked to this project
+}
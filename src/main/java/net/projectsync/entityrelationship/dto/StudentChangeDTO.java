@@ -0,0 +1,18 @@
+package net.projectsync.entityrelationship.dto;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StudentChangeDTO {
+    private Long seq;
+    private String entityType;
+    private Long entityId;
+    private Long version;					// null for DELETED
+    private String changeType;				// CREATED / UPDATED / DELETED
+    private List<String> changedFields;		// UPDATED only
+    private Instant createdAt;
+}
@@ -0,0 +1,16 @@
+package net.projectsync.entityrelationship.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentChangesDTO {
+    private List<StudentChangeDTO> changes;
+    private Long next;						// ?since= of the next poll (last seq returned, or the same since)
+}
@@ -0,0 +1,15 @@
+package net.projectsync.entityrelationship.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentEventDTO {
+    private Long id;
+    private String type;		// CREATED / UPDATED / DELETED (last one of the coalescing window)
+}
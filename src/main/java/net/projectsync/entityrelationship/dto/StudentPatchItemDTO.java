@@ -0,0 +1,11 @@
+package net.projectsync.entityrelationship.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// One element of PATCH /api/v1/students: the id (a path variable for single PATCH) + the usual patch fields
+@Getter
+@Setter
+public class StudentPatchItemDTO extends StudentUpdateDTO {
+    private Long id;
+}
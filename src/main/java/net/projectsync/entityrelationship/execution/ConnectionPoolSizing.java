@@ -0,0 +1,51 @@
+package net.projectsync.entityrelationship.execution;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import net.projectsync.entityrelationship.config.AppProperties;
+
+/*
+ * Derives the size of the primary Hikari pool from the request executor:
+ *   maximum-pool-size >= app.execution.jdbc-threads + app.execution.connection-headroom
+ *
+ * - jdbc-threads: one connection per RequestExecutor thread (ASYNC)
+ * - connection-headroom: the work that takes a connection OUTSIDE the executor
+ *   (/stream, /bulk, search indexer, change relay; see application.properties)
+ * - a larger spring.datasource.hikari.maximum-pool-size is kept (BLOCKING / VIRTUAL request concurrency)
+ * - read-only pools (app.datasource.replica.*) are sized by their own settings
+ *
+ * Raising jdbc-threads alone can no longer leave the executor queueing behind the headroom paths
+ */
+@Slf4j
+@Component
+public class ConnectionPoolSizing implements BeanPostProcessor {
+
+    private final ObjectProvider<AppProperties> appProperties;		// resolved late: post-processors are created before other beans
+
+    public ConnectionPoolSizing(ObjectProvider<AppProperties> appProperties) {
+        this.appProperties = appProperties;
+    }
+
+    // After initialization: spring.datasource.hikari.* is bound by then
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+        if (bean instanceof HikariDataSource && !((HikariDataSource) bean).isReadOnly()) {
+            size((HikariDataSource) bean, appProperties.getObject().getExecution());
+        }
+        return bean;
+    }
+
+    static void size(HikariDataSource dataSource, AppProperties.Execution execution) {
+
+        int required = execution.getJdbcThreads() + execution.getConnectionHeadroom();
+        if (dataSource.getMaximumPoolSize() < required) {
+            log.info("Hikari maximum-pool-size set to {} (jdbc-threads {} + connection-headroom {})",
+                    required, execution.getJdbcThreads(), execution.getConnectionHeadroom());
+            dataSource.setMaximumPoolSize(required);
+        }
+    }
+}
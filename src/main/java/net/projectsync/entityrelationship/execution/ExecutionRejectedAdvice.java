@@ -0,0 +1,28 @@
+package net.projectsync.entityrelationship.execution;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * ASYNC mode: all JDBC threads busy and the queue full -> 503 + Retry-After,
+ * the client backs off instead of piling up more waiting requests
+ */
+@Slf4j
+@RestControllerAdvice
+public class ExecutionRejectedAdvice {
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> rejected(RejectedExecutionException e) {
+
+        log.warn("Request rejected, JDBC executor saturated: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Server busy, retry later"));
+    }
+}
@@ -0,0 +1,102 @@
+package net.projectsync.entityrelationship.execution;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import net.projectsync.entityrelationship.config.AppProperties;
+import net.projectsync.entityrelationship.config.AppProperties.ExecutionMode;
+import net.projectsync.entityrelationship.instrumentation.RequestQueryStats;
+
+/*
+ * Runs the JDBC work of a StudentController handler according to app.execution.mode
+ *
+ * BLOCKING / VIRTUAL:
+ *   - work runs on the request thread (a virtual thread in VIRTUAL mode, see VirtualThreadConfig)
+ *   - the returned future is already complete
+ *
+ * ASYNC:
+ *   - work runs on a bounded pool of app.execution.jdbc-threads threads
+ *   - the Hikari pool holds jdbc-threads connections PLUS app.execution.connection-headroom for the paths
+ *     that bypass this executor (/stream, /bulk, search indexer, change relay; see ConnectionPoolSizing),
+ *     so a pool thread does not wait for a connection held by them
+ *   - the servlet thread is released while the query runs
+ *   - at most app.execution.queue-capacity requests wait, then RejectedExecutionException (HTTP 503)
+ *   - RequestQueryStats of the request is bound on the pool thread
+ *
+ * Metrics: executor.* {name=jdbc}
+ *
+ * Not a Spring Executor bean on purpose: that would replace Boot's applicationTaskExecutor
+ */
+@Component
+public class RequestExecutor {
+
+    private final ExecutionMode mode;
+    private final ThreadPoolTaskExecutor jdbcExecutor;
+
+    public RequestExecutor(AppProperties appProperties, MeterRegistry meterRegistry) {
+
+        AppProperties.Execution execution = appProperties.getExecution();
+        this.mode = execution.getMode();
+
+        if (mode == ExecutionMode.ASYNC) {
+            jdbcExecutor = new ThreadPoolTaskExecutor();
+            jdbcExecutor.setCorePoolSize(execution.getJdbcThreads());
+            jdbcExecutor.setMaxPoolSize(execution.getJdbcThreads());
+            jdbcExecutor.setQueueCapacity(execution.getQueueCapacity());
+            jdbcExecutor.setThreadNamePrefix("jdbc-");
+            jdbcExecutor.setTaskDecorator(RequestExecutor::propagateQueryStats);
+            jdbcExecutor.initialize();
+            new ExecutorServiceMetrics(jdbcExecutor.getThreadPoolExecutor(), "jdbc", Tags.empty()).bindTo(meterRegistry);
+        } else {
+            jdbcExecutor = null;
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+
+        if (jdbcExecutor == null) {
+            return CompletableFuture.completedFuture(work.get());
+        }
+        return CompletableFuture.supplyAsync(work, jdbcExecutor);
+    }
+
+    public CompletableFuture<Void> run(Runnable work) {
+        return submit(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public ExecutionMode getMode() {
+        return mode;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (jdbcExecutor != null) {
+            jdbcExecutor.shutdown();
+        }
+    }
+
+    // Captured on the servlet thread, bound / unbound on the pool thread
+    private static Runnable propagateQueryStats(Runnable task) {
+
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            RequestQueryStats.bind(stats);
+            try {
+                task.run();
+            } finally {
+                RequestQueryStats.unbind();
+            }
+        };
+    }
+}
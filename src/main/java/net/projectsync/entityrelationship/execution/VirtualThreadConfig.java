@@ -0,0 +1,40 @@
+package net.projectsync.entityrelationship.execution;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * app.execution.mode=VIRTUAL (Java 21+ runtime, the build still targets Java 11)
+ *
+ * Tomcat runs every request on its own virtual thread: handlers stay blocking,
+ * a thread parked on JDBC costs a few KB instead of a platform thread.
+ * Concurrent DB work is still bounded by the Hikari pool (app.execution.jdbc-threads),
+ * waiting requests park in HikariPool.getConnection() up to its connection-timeout.
+ *
+ * The JDK API is looked up reflectively so the code compiles on Java 11;
+ * starting in this mode on an older runtime fails fast.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.execution", name = "mode", havingValue = "VIRTUAL")
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("app.execution.mode=VIRTUAL requires Java 21 or newer, running on " + Runtime.version());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the virtual thread executor", e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+}
@@ -0,0 +1,67 @@
+package net.projectsync.entityrelationship.instrumentation;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.HibernateException;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.springframework.stereotype.Component;
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Per-request counterpart of Hibernate Statistics (which is global to the SessionFactory)
+ *
+ * - POST_LOAD              : every entity instance loaded (query, find, proxy, 2nd-level cache)
+ * - INIT_COLLECTION        : a lazy collection initialized on access (the "N" in N+1)
+ * - LOAD with IMMEDIATE_LOAD: a lazy to-one proxy initialized on access
+ *
+ * Appended after Hibernate's default listeners, they only count.
+ */
+@Component
+@RequiredArgsConstructor
+public class HibernateLoadCountingListener implements PostLoadEventListener, InitializeCollectionEventListener, LoadEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_LOAD, this);
+        registry.appendListeners(EventType.INIT_COLLECTION, this);
+        registry.appendListeners(EventType.LOAD, this);
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.entityLoaded();
+        }
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.lazyInitialized();
+        }
+    }
+
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) throws HibernateException {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null && loadType == LoadEventListener.IMMEDIATE_LOAD) {
+            stats.lazyInitialized();
+        }
+    }
+}
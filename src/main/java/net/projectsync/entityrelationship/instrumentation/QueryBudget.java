@@ -0,0 +1,28 @@
+package net.projectsync.entityrelationship.instrumentation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+ * Maximum number of SQL statements a handler method may execute per request
+ *
+ * Checked by QueryStatsResponseAdvice before the response body is written:
+ *   app.instrumentation.enforce-budgets=false -> WARN log
+ *   app.instrumentation.enforce-budgets=true  -> QueryBudgetExceededException (HTTP 500),
+ *                                                so an integration test on the endpoint fails
+ *
+ * Unbounded list endpoints batch fetch their associations in slices of app.read.in-clause-size ids:
+ * statementsPerSlice is allowed once more for every further slice of the returned collection
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int statements();
+
+    int statementsPerSlice() default 0;
+}
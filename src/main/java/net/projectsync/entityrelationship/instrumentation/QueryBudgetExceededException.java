@@ -0,0 +1,10 @@
+package net.projectsync.entityrelationship.instrumentation;
+
+public class QueryBudgetExceededException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
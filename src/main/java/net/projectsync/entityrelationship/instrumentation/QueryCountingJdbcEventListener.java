@@ -0,0 +1,32 @@
+package net.projectsync.entityrelationship.instrumentation;
+
+import java.sql.SQLException;
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+
+/*
+ * p6spy listener (registered in META-INF/services/com.p6spy.engine.event.JdbcEventListener)
+ *
+ * - Every execute / executeQuery / executeUpdate / executeBatch = 1 statement (1 round trip)
+ * - Every ResultSet.next() returning true = 1 row fetched
+ * - Only counts when a RequestQueryStats is bound to the current thread
+ */
+public class QueryCountingJdbcEventListener extends SimpleJdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.statementExecuted();
+        }
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos, boolean hasNext, SQLException e) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null && hasNext) {
+            stats.rowFetched();
+        }
+    }
+}
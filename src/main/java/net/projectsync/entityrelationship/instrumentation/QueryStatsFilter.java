@@ -0,0 +1,88 @@
+package net.projectsync.entityrelationship.instrumentation;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import net.projectsync.entityrelationship.config.AppProperties;
+
+/*
+ * Opens a RequestQueryStats for every /api request and records it when the request completes
+ *
+ * Metrics (tags: method, uri pattern), with p50 / p95 / p99:
+ *   request.sql.statements
+ *   request.sql.rows
+ *   request.entities.loaded
+ *   request.lazy.initializations
+ *
+ * Also runs on async dispatch: stats are taken from the request attribute
+ * and recorded only once the response is really complete
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private static final double[] PERCENTILES = { 0.5, 0.95, 0.99 };
+
+    private final MeterRegistry meterRegistry;
+    private final AppProperties appProperties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !appProperties.getInstrumentation().isEnabled()
+                || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RequestQueryStats stats = (RequestQueryStats) request.getAttribute(RequestQueryStats.ATTRIBUTE);
+        if (stats == null) {
+            stats = new RequestQueryStats();
+            request.setAttribute(RequestQueryStats.ATTRIBUTE, stats);
+        }
+
+        RequestQueryStats.bind(stats);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.unbind();
+            if (!request.isAsyncStarted()) {
+                record(request, stats);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestQueryStats stats) {
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern != null ? pattern.toString() : "UNKNOWN");
+
+        summary("request.sql.statements", "SQL statements executed per request", tags).record(stats.getStatements());
+        summary("request.sql.rows", "Rows fetched per request", tags).record(stats.getRowsFetched());
+        summary("request.entities.loaded", "Entities loaded per request", tags).record(stats.getEntitiesLoaded());
+        summary("request.lazy.initializations", "Lazy proxies / collections initialized per request", tags).record(stats.getLazyInitializations());
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentiles(PERCENTILES)
+                .register(meterRegistry);
+    }
+}
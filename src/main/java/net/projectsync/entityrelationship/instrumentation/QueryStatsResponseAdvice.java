@@ -0,0 +1,90 @@
+package net.projectsync.entityrelationship.instrumentation;
+
+import java.util.Collection;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.projectsync.entityrelationship.config.AppProperties;
+
+/*
+ * Runs after the handler returned and before the body is written (headers are still writable)
+ *
+ * - app.instrumentation.response-headers=true (dev profile): X-Sql-Statements, X-Sql-Rows,
+ *   X-Entities-Loaded, X-Lazy-Initializations on every /api response
+ * - checks the @QueryBudget of the handler method
+ */
+@Slf4j
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class QueryStatsResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final AppProperties appProperties;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return appProperties.getInstrumentation().isEnabled();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
+
+        if (!(request instanceof ServletServerHttpRequest)) {
+            return body;
+        }
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        RequestQueryStats stats = (RequestQueryStats) servletRequest.getAttribute(RequestQueryStats.ATTRIBUTE);
+        if (stats == null) {
+            return body;
+        }
+
+        if (appProperties.getInstrumentation().isResponseHeaders()) {
+            response.getHeaders().add("X-Sql-Statements", String.valueOf(stats.getStatements()));
+            response.getHeaders().add("X-Sql-Rows", String.valueOf(stats.getRowsFetched()));
+            response.getHeaders().add("X-Entities-Loaded", String.valueOf(stats.getEntitiesLoaded()));
+            response.getHeaders().add("X-Lazy-Initializations", String.valueOf(stats.getLazyInitializations()));
+        }
+
+        QueryBudget budget = returnType.getMethodAnnotation(QueryBudget.class);
+        int allowed = budget == null ? Integer.MAX_VALUE : allowedStatements(budget, body);
+        if (stats.getStatements() > allowed) {
+            String msg = String.format("%s %s exceeded its query budget: %d statements (budget %d), %s",
+                    servletRequest.getMethod(), servletRequest.getRequestURI(), stats.getStatements(), allowed, stats);
+            if (appProperties.getInstrumentation().isEnforceBudgets()) {
+                throw new QueryBudgetExceededException(msg);
+            }
+            log.warn(msg);
+        }
+        return body;
+    }
+
+    private int allowedStatements(QueryBudget budget, Object body) {
+
+        int size = sizeOf(body);
+        if (budget.statementsPerSlice() == 0 || size < 0) {
+            return budget.statements();
+        }
+        int sliceSize = appProperties.getRead().getInClauseSize();
+        int slices = Math.max(1, (size + sliceSize - 1) / sliceSize);
+        return budget.statements() + (slices - 1) * budget.statementsPerSlice();
+    }
+
+    // number of elements of a list body, -1 when the body is not a list
+    private static int sizeOf(Object body) {
+        if (body instanceof Collection) {
+            return ((Collection<?>) body).size();
+        }
+        if (body instanceof Sized) {
+            return ((Sized) body).size();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,54 @@
+package net.projectsync.entityrelationship.instrumentation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Database work done while serving ONE HTTP request
+ *
+ * - Created by QueryStatsFilter, bound to the request thread (ThreadLocal)
+ *   and stored as a request attribute (survives async dispatch)
+ * - Incremented by the p6spy listener (statements, rows)
+ *   and the Hibernate listeners (entities, lazy initializations)
+ * - Counters are atomic: work may run on another thread than the servlet thread
+ */
+public class RequestQueryStats {
+
+    public static final String ATTRIBUTE = RequestQueryStats.class.getName();
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private final AtomicLong statements = new AtomicLong();
+    private final AtomicLong rowsFetched = new AtomicLong();
+    private final AtomicLong entitiesLoaded = new AtomicLong();
+    private final AtomicLong lazyInitializations = new AtomicLong();
+
+    // ---------- thread binding ----------
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(RequestQueryStats stats) {
+        CURRENT.set(stats);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    // ---------- counters ----------
+    void statementExecuted()     { statements.incrementAndGet(); }
+    void rowFetched()            { rowsFetched.incrementAndGet(); }
+    void entityLoaded()          { entitiesLoaded.incrementAndGet(); }
+    void lazyInitialized()       { lazyInitializations.incrementAndGet(); }
+
+    public long getStatements()          { return statements.get(); }
+    public long getRowsFetched()         { return rowsFetched.get(); }
+    public long getEntitiesLoaded()      { return entitiesLoaded.get(); }
+    public long getLazyInitializations() { return lazyInitializations.get(); }
+
+    @Override
+    public String toString() {
+        return String.format("statements=%d, rows=%d, entities=%d, lazy=%d",
+                getStatements(), getRowsFetched(), getEntitiesLoaded(), getLazyInitializations());
+    }
+}
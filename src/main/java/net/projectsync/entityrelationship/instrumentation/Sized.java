@@ -0,0 +1,8 @@
+package net.projectsync.entityrelationship.instrumentation;
+
+// Response body holding a known number of elements without being a Collection (e.g. StudentListView):
+// QueryStatsResponseAdvice counts its slices for @QueryBudget(statementsPerSlice)
+public interface Sized {
+
+    int size();
+}
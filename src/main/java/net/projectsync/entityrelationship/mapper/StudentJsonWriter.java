@@ -0,0 +1,134 @@
+package net.projectsync.entityrelationship.mapper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import net.projectsync.entityrelationship.model.Address;
+import net.projectsync.entityrelationship.model.Phone;
+import net.projectsync.entityrelationship.model.Project;
+import net.projectsync.entityrelationship.model.Student;
+
+/*
+ * Writes Student entities straight into a JsonGenerator, without building StudentDTO graphs.
+ *
+ * - Output is identical to serializing StudentMapper.toDTO(s) (same fields, same order, nulls written)
+ * - Associations must already be initialized (see StudentService.fetchAssociations)
+ * - Projects are shared by many students: each one is rendered once per writer and
+ *   re-emitted as a raw value (keyed by id, re-rendered when the version changes)
+ *
+ * One instance per response (not thread-safe).
+ */
+public class StudentJsonWriter {
+
+    private final Map<Long, RenderedProject> projects = new HashMap<>();
+
+    public void write(JsonGenerator g, Student s) throws IOException {
+
+        g.writeStartObject();
+        writeLong(g, "id", s.getId());
+        writeLong(g, "version", s.getVersion());
+        g.writeStringField("firstName", s.getFirstName());
+        g.writeStringField("lastName", s.getLastName());
+        g.writeStringField("email", s.getEmail());
+
+        // ManyToOne (address)
+        g.writeFieldName("address");
+        if (s.getAddress() == null) {
+            g.writeNull();
+        } else {
+            write(g, s.getAddress());
+        }
+
+        // OneToMany
+        g.writeFieldName("phones");
+        if (s.getPhones() == null) {
+            g.writeNull();
+        } else {
+            g.writeStartArray();
+            for (Phone p : s.getPhones()) {
+                write(g, p);
+            }
+            g.writeEndArray();
+        }
+
+        // ManyToMany
+        g.writeFieldName("projects");
+        if (s.getProjects() == null) {
+            g.writeNull();
+        } else {
+            g.writeStartArray();
+            for (Project p : s.getProjects()) {
+                g.writeRawValue(render(p));
+            }
+            g.writeEndArray();
+        }
+
+        g.writeEndObject();
+    }
+
+    private static void write(JsonGenerator g, Address a) throws IOException {
+        g.writeStartObject();
+        writeLong(g, "id", a.getId());
+        writeLong(g, "version", a.getVersion());
+        g.writeStringField("houseName", a.getHouseName());
+        g.writeStringField("streetNo", a.getStreetNo());
+        g.writeStringField("city", a.getCity());
+        g.writeStringField("state", a.getState());
+        g.writeStringField("country", a.getCountry());
+        g.writeEndObject();
+    }
+
+    private static void write(JsonGenerator g, Phone p) throws IOException {
+        g.writeStartObject();
+        writeLong(g, "id", p.getId());
+        writeLong(g, "version", p.getVersion());
+        g.writeStringField("phoneModel", p.getPhoneModel());
+        g.writeStringField("phoneNumber", p.getPhoneNumber());
+        g.writeEndObject();
+    }
+
+    // {"id":..,"version":..,"projectName":..} rendered once per project (and version)
+    private String render(Project p) {
+
+        RenderedProject rendered = projects.get(p.getId());
+        if (rendered != null && Objects.equals(rendered.version, p.getVersion())) {
+            return rendered.json;
+        }
+
+        StringBuilder json = new StringBuilder(64)
+                .append("{\"id\":").append(p.getId())
+                .append(",\"version\":").append(p.getVersion())
+                .append(",\"projectName\":");
+        if (p.getProjectName() == null) {
+            json.append("null");
+        } else {
+            json.append('"').append(JsonStringEncoder.getInstance().quoteAsString(p.getProjectName())).append('"');
+        }
+        json.append('}');
+
+        rendered = new RenderedProject(p.getVersion(), json.toString());
+        projects.put(p.getId(), rendered);
+        return rendered.json;
+    }
+
+    private static void writeLong(JsonGenerator g, String name, Long value) throws IOException {
+        if (value == null) {
+            g.writeNullField(name);
+        } else {
+            g.writeNumberField(name, value.longValue());
+        }
+    }
+
+    private static class RenderedProject {
+        private final Long version;
+        private final String json;
+
+        private RenderedProject(Long version, String json) {
+            this.version = version;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package net.projectsync.entityrelationship.mapper;
+
+import java.io.IOException;
+import java.util.List;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import net.projectsync.entityrelationship.dto.StudentDTO;
+import net.projectsync.entityrelationship.instrumentation.Sized;
+import net.projectsync.entityrelationship.model.Student;
+
+/*
+ * Result of the student list endpoints, serialized as a JSON array of StudentDTO
+ *
+ * - entities (app.read.direct-json): written by StudentJsonWriter, no StudentDTO / PhoneDTO / ProjectDTO per element
+ * - dtos: already mapped by StudentMapper, written by Jackson
+ * - Entities are detached once the read transaction is over: their associations
+ *   must have been initialized before (StudentService.fetchAssociations)
+ * - writeTo(): same elements without the enclosing array (NDJSON /stream)
+ * - Documented as StudentDTO[] (see SwaggerConfig)
+ * - Sized: @QueryBudget(statementsPerSlice) counts its slices like a Collection's
+ */
+@JsonSerialize(using = StudentListView.Serializer.class)
+public final class StudentListView implements Sized {
+
+    private final List<Student> students;		// direct-json, null otherwise
+    private final List<StudentDTO> dtos;		// mapped, null otherwise
+
+    private StudentListView(List<Student> students, List<StudentDTO> dtos) {
+        this.students = students;
+        this.dtos = dtos;
+    }
+
+    public static StudentListView ofEntities(List<Student> students) {
+        return new StudentListView(students, null);
+    }
+
+    public static StudentListView ofDTOs(List<StudentDTO> dtos) {
+        return new StudentListView(null, dtos);
+    }
+
+    public static StudentListView empty() {
+        return ofDTOs(List.of());
+    }
+
+    @Override
+    public int size() {
+        return students != null ? students.size() : dtos.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // keyset cursor: id of the last element, null when empty
+    public Long lastId() {
+        if (isEmpty()) return null;
+        return students != null ? students.get(students.size() - 1).getId() : dtos.get(dtos.size() - 1).getId();
+    }
+
+    public List<StudentDTO> toDTOs() {
+        return students != null ? students.stream().map(StudentMapper::toDTO).toList() : dtos;
+    }
+
+    // Elements one after the other, each followed by '\n' when lineDelimited (NDJSON)
+    // writer: may be shared across calls, projects are then rendered once per response
+    public void writeTo(JsonGenerator g, StudentJsonWriter writer, boolean lineDelimited) throws IOException {
+        if (students != null) {
+            for (Student s : students) {
+                writer.write(g, s);
+                if (lineDelimited) g.writeRaw('\n');
+            }
+        } else {
+            for (StudentDTO dto : dtos) {
+                g.writeObject(dto);
+                if (lineDelimited) g.writeRaw('\n');
+            }
+        }
+    }
+
+    public static class Serializer extends StdSerializer<StudentListView> {
+
+        public Serializer() {
+            super(StudentListView.class);
+        }
+
+        @Override
+        public void serialize(StudentListView value, JsonGenerator g, SerializerProvider provider) throws IOException {
+            g.writeStartArray();
+            value.writeTo(g, new StudentJsonWriter(), false);
+            g.writeEndArray();
+        }
+    }
+}
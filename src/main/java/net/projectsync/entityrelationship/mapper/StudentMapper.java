@@ -1,5 +1,6 @@
 package net.projectsync.entityrelationship.mapper;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import net.projectsync.entityrelationship.dto.AddressDTO;
@@ -11,6 +12,7 @@ import net.projectsync.entityrelationship.model.Address;
 import net.projectsync.entityrelationship.model.Phone;
 import net.projectsync.entityrelationship.model.Project;
 import net.projectsync.entityrelationship.model.Student;
+import net.projectsync.entityrelationship.repository.StudentFullRow;
 
 public class StudentMapper {
 
@@ -26,7 +28,7 @@ public class StudentMapper {
         s.setLastName(dto.getLastName());
         s.setEmail(dto.getEmail());
 
-        // OneToOne
+        // ManyToOne (address)
         if (dto.getAddress() != null) {
         	s.setAddress(toNewAddress(dto.getAddress()));
         }
@@ -78,7 +80,7 @@ public class StudentMapper {
         dto.setLastName(s.getLastName());
         dto.setEmail(s.getEmail());
 
-        // OneToOne
+        // ManyToOne (address)
         if (s.getAddress() != null)
             dto.setAddress(toDTO(s.getAddress()));
 
@@ -141,6 +143,57 @@ public class StudentMapper {
         return dto;
     }
 
+    // =========================================
+    // ROW PROJECTION → DTO
+    // =========================================
+    // rows: one per phone (all rows share the same student / address columns)
+    public static StudentDTO toDTO(List<StudentFullRow> rows, List<ProjectDTO> projects) {
+
+        if (rows == null || rows.isEmpty()) {
+            return null;
+        }
+
+        StudentFullRow first = rows.get(0);
+
+        StudentDTO dto = new StudentDTO();
+        dto.setId(first.getId());
+        dto.setVersion(first.getVersion());
+        dto.setFirstName(first.getFirstName());
+        dto.setLastName(first.getLastName());
+        dto.setEmail(first.getEmail());
+
+        // ManyToOne (address)
+        if (first.getAddressId() != null) {
+            AddressDTO address = new AddressDTO();
+            address.setId(first.getAddressId());
+            address.setVersion(first.getAddressVersion());
+            address.setHouseName(first.getHouseName());
+            address.setStreetNo(first.getStreetNo());
+            address.setCity(first.getCity());
+            address.setState(first.getState());
+            address.setCountry(first.getCountry());
+            dto.setAddress(address);
+        }
+
+        // OneToMany (LEFT JOIN -> phone columns are null when student has no phones)
+        List<PhoneDTO> phones = new ArrayList<>(rows.size());
+        for (StudentFullRow row : rows) {
+            if (row.getPhoneId() == null) continue;
+            PhoneDTO phone = new PhoneDTO();
+            phone.setId(row.getPhoneId());
+            phone.setVersion(row.getPhoneVersion());
+            phone.setPhoneModel(row.getPhoneModel());
+            phone.setPhoneNumber(row.getPhoneNumber());
+            phones.add(phone);
+        }
+        dto.setPhones(phones);
+
+        // ManyToMany
+        dto.setProjects(projects);
+
+        return dto;
+    }
+
     public static ProjectDTO toProjectDTO(Project p) {
         ProjectDTO dto = new ProjectDTO();
         dto.setId(p.getId());
@@ -1,20 +1,31 @@
 package net.projectsync.entityrelationship.model;
 
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import javax.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = @Index(name = "idx_address_content_hash", columnList = "content_hash"))	// canonical row lookup (AddressResolver)
 @Getter
 @Setter
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "address")	// second-level cache, see application.conf
 public class Address {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "address_seq")
+    @SequenceGenerator(name = "address_seq", sequenceName = "address_seq", allocationSize = 50)
     private Long id;
 
     private String houseName;
@@ -23,6 +34,11 @@ public class Address {
     private String state;
     private String country;
 
+    // SHA-256 of the fields, set on SHARED rows only (app.addresses.shared, see AddressResolver).
+    // A shared row is never updated in place, so the hash stays valid. null -> private to one student
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Version
     private Long version;
 }
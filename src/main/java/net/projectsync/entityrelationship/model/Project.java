@@ -1,36 +1,72 @@
 package net.projectsync.entityrelationship.model;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
 
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToMany;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import javax.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = @Index(name = "uk_project_normalized_name", columnList = "normalized_name", unique = true))	// one project per name
 @Getter
 @Setter
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "project")	// second-level cache, see application.conf
 public class Project {
 
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_seq")
+	@SequenceGenerator(name = "project_seq", sequenceName = "project_seq", allocationSize = 50)
 	private Long id;
 
 	private String projectName;
 
+	// Lookup key of projectName (see normalize), kept in sync by setProjectName.
+	// null for rows written before the column existed, until the one-off merge runs (ProjectMergeRunner)
+	@Setter(AccessLevel.NONE)
+	@Column(name = "normalized_name")
+	private String normalizedName;
+
 	@JsonIgnore												// @JsonIgnore is added for JSON serialization safety
 	@ManyToMany(mappedBy = "projects")
-	private List<Student> students = new ArrayList<>();
-	// private Set<Student> students = new HashSet<>();		// Use Set for ManyToMany (Because you use List, duplicates are possible)
+	private Set<Student> students = new LinkedHashSet<>();	// Set on both sides of the ManyToMany
 
 	@Version
 	private Long version;
+
+	public void setProjectName(String projectName) {
+		this.projectName = projectName;
+		this.normalizedName = normalize(projectName);
+	}
+
+	// "  Data  Science " and "data science" are the same project: NFKC, trimmed, single spaces, lower case
+	public static String normalize(String projectName) {
+		if (projectName == null) {
+			return null;
+		}
+		String nfkc = Normalizer.normalize(projectName, Normalizer.Form.NFKC);
+		return WHITESPACE.matcher(nfkc.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+	}
 }
 
 /*
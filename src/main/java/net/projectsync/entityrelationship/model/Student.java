@@ -1,29 +1,39 @@
 package net.projectsync.entityrelationship.model;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
+import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
-import javax.persistence.OneToOne;
+import javax.persistence.OrderBy;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import javax.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = @Index(name = "idx_student_address_id", columnList = "address_id"))	// students of an address (orphan checks, bulk delete)
 @Getter
 @Setter
 public class Student {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // SEQUENCE (not IDENTITY): Hibernate can assign ids before INSERT and batch the statements
+    // allocationSize must match the INCREMENT BY of the database sequence
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_seq")
+    @SequenceGenerator(name = "student_seq", sequenceName = "student_seq", allocationSize = 50)
     private Long id;
 
     private String firstName;
@@ -33,22 +43,30 @@ public class Student {
     @Version
     private Long version;
 
-    // -------- OneToOne (Student is owning side) --------
-    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    // -------- ManyToOne (Student is owning side) --------
+    // One row per student unless app.addresses.shared: identical addresses are then one row shared by many students,
+    // so no REMOVE cascade: the row is deleted by AddressResolver.release once no student references it
+    @ManyToOne(cascade = { CascadeType.PERSIST, CascadeType.MERGE }, fetch = FetchType.LAZY)
     @JoinColumn(name = "address_id")						// Owning side = entity that has @JoinColumn
     private Address address;
 
     // -------- OneToMany (Phone owns FK) --------
+    // Set: elements are identified by id, @OrderBy keeps the JSON order stable (LinkedHashSet when loaded)
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, mappedBy = "student", orphanRemoval = true)
-    private List<Phone> phones = new ArrayList<>();
+    @OrderBy("id")
+    private Set<Phone> phones = new LinkedHashSet<>();
 
     // -------- ManyToMany (Student is owning side) --------
     @ManyToMany(cascade = { CascadeType.PERSIST, CascadeType.MERGE }, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "student-projects")	// caches project ids only, Project itself is cached too
     @JoinTable(name = "students_projects",
     	joinColumns = @JoinColumn(name = "student_id"),
-        inverseJoinColumns = @JoinColumn(name = "project_id"))
-    private List<Project> projects = new ArrayList<>();
-    // private Set<Project> projects = new HashSet<>();		// Use Set for ManyToMany (Because you use List, duplicates are possible)
+        inverseJoinColumns = @JoinColumn(name = "project_id"),
+        indexes = @Index(name = "idx_students_projects_project_id", columnList = "project_id"))	// PK is (student_id, project_id): project side lookups / counts need their own index
+    @OrderBy("id")
+    private Set<Project> projects = new LinkedHashSet<>();	// Set, not List: a List is a bag, so Hibernate deletes ALL join rows
+    														// of the student and re-inserts them on any change. A Set only
+    														// INSERTs / DELETEs the links that changed (and forbids duplicates)
     
     /* OneToMany helper - (mandatory) */
     public void addPhone(Phone phone) {
@@ -0,0 +1,61 @@
+package net.projectsync.entityrelationship.model;
+
+import java.time.Instant;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/*
+ * Outbox row: one committed mutation of a student (GET /api/v1/students/changes)
+ *
+ * - Inserted in the SAME transaction as the mutation: a rolled back write leaves no row,
+ *   a committed one always has its row
+ * - seq is only the row id: it is taken from a sequence (blocks of 50 per node), so rows
+ *   COMMIT out of seq order and seq can not be the feed cursor
+ * - feedSeq orders the feed: null when inserted, assigned once after commit by the single
+ *   writer StudentChangeRelay, in the order the rows became visible. Never updated afterwards
+ *   (no @Version)
+ */
+@Entity
+@Table(name = "student_change",
+       indexes = @Index(name = "uk_student_change_feed_seq", columnList = "feed_seq", unique = true))
+@Getter
+@Setter
+public class StudentChange {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_change_seq")
+    @SequenceGenerator(name = "student_change_seq", sequenceName = "student_change_seq", allocationSize = 50)
+    private Long seq;
+
+    @Column(name = "feed_seq")
+    private Long feedSeq;				// position in the feed (?since), null until relayed
+
+    @Column(nullable = false)
+    private String entityType;			// "Student"
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    private Long entityVersion;			// version after the change, null for DELETED
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type changeType;
+
+    private String changedFields;		// UPDATED: comma separated top level fields (firstName, address, phones, ...)
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,29 @@
+package net.projectsync.entityrelationship.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/*
+ * Single row (id = 1): last feedSeq handed out by StudentChangeRelay
+ *
+ * - Locked (SELECT ... FOR UPDATE) by every relay run: one writer at a time across all nodes,
+ *   so feedSeq follows the order in which the relay runs commit
+ */
+@Entity
+@Table(name = "student_change_head")
+@Getter
+@Setter
+public class StudentChangeHead {
+
+    public static final Integer ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long lastFeedSeq;
+}
@@ -0,0 +1,115 @@
+package net.projectsync.entityrelationship.reactive;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import lombok.extern.slf4j.Slf4j;
+import net.projectsync.entityrelationship.config.AppProperties;
+
+/*
+ * Reactive read API, next to the Servlet (Spring MVC + JPA) application
+ *
+ * - Tomcat keeps serving /api/v1/** on server.port
+ * - a Netty server on app.reactive.port serves the same read paths non-blocking:
+ *     GET /api/v1/students/{id}/full
+ *     GET /api/v1/students/project/{name}    (NDJSON)
+ *     GET /api/v1/students/with-phones       (NDJSON)
+ * - the R2DBC pool (app.reactive.r2dbc.*) is private to this configuration:
+ *   a ConnectionFactory BEAN would make Spring Boot back off from the JDBC DataSource (and JPA),
+ *   which is also why R2dbcAutoConfiguration is excluded (spring.autoconfigure.exclude)
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "app.reactive", name = "enabled", havingValue = "true")
+public class ReactiveApiConfig implements DisposableBean {
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public StudentReactiveRepository studentReactiveRepository(AppProperties appProperties) {
+
+        AppProperties.Reactive reactive = appProperties.getReactive();
+        AppProperties.R2dbc r2dbc = reactive.getR2dbc();
+
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(r2dbc.getUrl()).mutate();
+        if (r2dbc.getUsername() != null) options.option(ConnectionFactoryOptions.USER, r2dbc.getUsername());
+        if (r2dbc.getPassword() != null) options.option(ConnectionFactoryOptions.PASSWORD, r2dbc.getPassword());
+
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .maxSize(r2dbc.getPoolMaxSize())
+                .build());
+
+        return new StudentReactiveRepository(DatabaseClient.create(connectionPool), reactive.getSchema(), reactive.getWindowSize());
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> studentReactiveRoutes(StudentReactiveRepository studentReactiveRepository) {
+        StudentReactiveHandler handler = new StudentReactiveHandler(studentReactiveRepository);
+        return RouterFunctions.route()
+                .path("/api/v1/students", builder -> builder
+                        .GET("/{id}/full", handler::getFull)
+                        .GET("/project/{name}", handler::getByProject)
+                        .GET("/with-phones", handler::withPhones))
+                .build();
+    }
+
+    @Bean
+    public SmartLifecycle reactiveApiServer(RouterFunction<ServerResponse> studentReactiveRoutes,
+                                            ObjectMapper objectMapper, AppProperties appProperties) {
+
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));		// same JSON as the MVC endpoints
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        WebServer server = new NettyReactiveWebServerFactory(appProperties.getReactive().getPort())
+                .getWebServer(RouterFunctions.toHttpHandler(studentReactiveRoutes, strategies));
+
+        return new SmartLifecycle() {
+
+            private volatile boolean running;
+
+            @Override
+            public void start() {
+                server.start();
+                running = true;
+                log.info("Reactive read API started on port {}", server.getPort());
+            }
+
+            @Override
+            public void stop() {
+                server.stop();
+                running = false;
+            }
+
+            @Override
+            public boolean isRunning() {
+                return running;
+            }
+        };
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
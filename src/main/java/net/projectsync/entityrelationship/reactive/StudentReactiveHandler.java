@@ -0,0 +1,50 @@
+package net.projectsync.entityrelationship.reactive;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import net.projectsync.entityrelationship.dto.StudentDTO;
+import reactor.core.publisher.Mono;
+
+/*
+ * Reactive counterparts of StudentController read endpoints
+ *
+ * Lists are written as NDJSON: one StudentDTO per line, flushed per element,
+ * written only as fast as the client reads (backpressure down to the R2DBC windows)
+ *
+ * A non-numeric {id} is a ServerWebInputException: 400, like the MVC type mismatch
+ */
+public class StudentReactiveHandler {
+
+    private final StudentReactiveRepository repository;
+
+    public StudentReactiveHandler(StudentReactiveRepository repository) {
+        this.repository = repository;
+    }
+
+    public Mono<ServerResponse> getFull(ServerRequest request) {
+        String id = request.pathVariable("id");
+        long studentId;
+        try {
+            studentId = Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return Mono.error(new ServerWebInputException("Invalid student id: " + id));
+        }
+        return repository.findFull(studentId)
+                .flatMap(dto -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(dto))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> getByProject(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(repository.findByProjectName(request.pathVariable("name")), StudentDTO.class);
+    }
+
+    public Mono<ServerResponse> withPhones(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(repository.findWithPhones(), StudentDTO.class);
+    }
+}
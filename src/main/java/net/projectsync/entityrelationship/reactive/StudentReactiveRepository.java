@@ -0,0 +1,157 @@
+package net.projectsync.entityrelationship.reactive;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import org.springframework.r2dbc.core.DatabaseClient;
+import io.r2dbc.spi.Row;
+import net.projectsync.entityrelationship.dto.AddressDTO;
+import net.projectsync.entityrelationship.dto.PhoneDTO;
+import net.projectsync.entityrelationship.dto.ProjectDTO;
+import net.projectsync.entityrelationship.dto.StudentDTO;
+import net.projectsync.entityrelationship.model.Project;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+ * Non-blocking reads of StudentDTO over R2DBC, same tables as the JPA entities:
+ *   student, address, phone, project, students_projects
+ *
+ * Lists are read in keyset windows of student ids (WHERE id > :after ORDER BY id LIMIT :n):
+ *   - per window: students + address, phones IN (:ids), projects IN (:ids) -> 3 queries
+ *   - the next window is queried only when the subscriber has consumed the previous one,
+ *     a slow client stops the reads instead of buffering the table in memory
+ *   - no connection is held between windows
+ */
+public class StudentReactiveRepository {
+
+    private final DatabaseClient client;
+    private final String schema;
+    private final int windowSize;
+
+    public StudentReactiveRepository(DatabaseClient client, String schema, int windowSize) {
+        this.client = client;
+        this.schema = schema;
+        this.windowSize = windowSize;
+    }
+
+    // ---------- GET /{id}/full ----------
+    public Mono<StudentDTO> findFull(long id) {
+        return loadWindow(List.of(id)).next();
+    }
+
+    // ---------- GET /project/{name} ----------
+    public Flux<StudentDTO> findByProjectName(String name) {
+        return windows((after, limit) -> client.sql(
+                        "SELECT DISTINCT sp.student_id FROM " + table("students_projects") + " sp "
+                        + "JOIN " + table("project") + " p ON p.id = sp.project_id "
+                        + "WHERE (p.normalized_name = :name OR (p.normalized_name IS NULL AND LOWER(TRIM(p.project_name)) = :name)) "
+                        + "AND sp.student_id > :after ORDER BY sp.student_id LIMIT :limit")
+                .bind("name", Project.normalize(name))
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(row -> row.get("student_id", Long.class))
+                .all()
+                .collectList());
+    }
+
+    // ---------- GET /with-phones ----------
+    public Flux<StudentDTO> findWithPhones() {
+        return windows((after, limit) -> client.sql(
+                        "SELECT DISTINCT student_id FROM " + table("phone") + " "
+                        + "WHERE student_id > :after ORDER BY student_id LIMIT :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(row -> row.get("student_id", Long.class))
+                .all()
+                .collectList());
+    }
+
+    // idWindow(after, limit) -> next ids in ascending order
+    private Flux<StudentDTO> windows(BiFunction<Long, Integer, Mono<List<Long>>> idWindow) {
+        return idWindow.apply(0L, windowSize)
+                .expand(ids -> ids.size() < windowSize
+                        ? Mono.empty()
+                        : idWindow.apply(ids.get(ids.size() - 1), windowSize))
+                .filter(ids -> !ids.isEmpty())
+                .concatMap(this::loadWindow, 1);
+    }
+
+    private Flux<StudentDTO> loadWindow(List<Long> ids) {
+
+        Mono<List<StudentDTO>> students = client.sql(
+                        "SELECT s.id, s.version, s.first_name, s.last_name, s.email, "
+                        + "a.id AS address_id, a.version AS address_version, a.house_name, a.street_no, a.city, a.state, a.country "
+                        + "FROM " + table("student") + " s LEFT JOIN " + table("address") + " a ON a.id = s.address_id "
+                        + "WHERE s.id IN (:ids) ORDER BY s.id")
+                .bind("ids", ids)
+                .map(StudentReactiveRepository::toStudent)
+                .all()
+                .collectList();
+
+        Mono<Map<Long, List<PhoneDTO>>> phones = client.sql(
+                        "SELECT id, version, phone_model, phone_number, student_id FROM " + table("phone") + " "
+                        + "WHERE student_id IN (:ids) ORDER BY id")
+                .bind("ids", ids)
+                .map(row -> Map.entry(row.get("student_id", Long.class), toPhone(row)))
+                .all()
+                .collect(Collectors.groupingBy(Map.Entry::getKey, Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+
+        Mono<Map<Long, List<ProjectDTO>>> projects = client.sql(
+                        "SELECT sp.student_id, p.id, p.version, p.project_name FROM " + table("students_projects") + " sp "
+                        + "JOIN " + table("project") + " p ON p.id = sp.project_id "
+                        + "WHERE sp.student_id IN (:ids) ORDER BY p.id")
+                .bind("ids", ids)
+                .map(row -> Map.entry(row.get("student_id", Long.class),
+                        new ProjectDTO(row.get("id", Long.class), row.get("version", Long.class), row.get("project_name", String.class))))
+                .all()
+                .collect(Collectors.groupingBy(Map.Entry::getKey, Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+
+        return Mono.zip(students, phones, projects)
+                .flatMapIterable(t -> {
+                    for (StudentDTO dto : t.getT1()) {
+                        dto.setPhones(t.getT2().getOrDefault(dto.getId(), List.of()));
+                        dto.setProjects(t.getT3().getOrDefault(dto.getId(), List.of()));
+                    }
+                    return t.getT1();
+                });
+    }
+
+    private String table(String name) {
+        return schema == null || schema.isBlank() ? name : schema + "." + name;
+    }
+
+    private static StudentDTO toStudent(Row row) {
+
+        StudentDTO dto = new StudentDTO();
+        dto.setId(row.get("id", Long.class));
+        dto.setVersion(row.get("version", Long.class));
+        dto.setFirstName(row.get("first_name", String.class));
+        dto.setLastName(row.get("last_name", String.class));
+        dto.setEmail(row.get("email", String.class));
+
+        Long addressId = row.get("address_id", Long.class);
+        if (addressId != null) {
+            AddressDTO address = new AddressDTO();
+            address.setId(addressId);
+            address.setVersion(row.get("address_version", Long.class));
+            address.setHouseName(row.get("house_name", String.class));
+            address.setStreetNo(row.get("street_no", String.class));
+            address.setCity(row.get("city", String.class));
+            address.setState(row.get("state", String.class));
+            address.setCountry(row.get("country", String.class));
+            dto.setAddress(address);
+        }
+        return dto;
+    }
+
+    private static PhoneDTO toPhone(Row row) {
+        PhoneDTO dto = new PhoneDTO();
+        dto.setId(row.get("id", Long.class));
+        dto.setVersion(row.get("version", Long.class));
+        dto.setPhoneModel(row.get("phone_model", String.class));
+        dto.setPhoneNumber(row.get("phone_number", String.class));
+        return dto;
+    }
+}
@@ -1,8 +1,34 @@
 package net.projectsync.entityrelationship.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import net.projectsync.entityrelationship.model.Address;
 
 public interface AddressRepository extends JpaRepository<Address, Long> {
 
+    // --------------------------------------------
+    // Delete the given addresses unless a student still references them
+    // NOT IN instead of a correlated NOT EXISTS: Hibernate drops the alias of a bulk DELETE,
+    // the subquery is restricted to the same ids so it never returns NULL
+    // --------------------------------------------
+	@Modifying
+	@Query("DELETE FROM Address a WHERE a.id IN :ids "
+			+ "AND a.id NOT IN (SELECT s.address.id FROM Student s WHERE s.address.id IN :ids)")
+	int deleteOrphans(@Param("ids") Collection<Long> ids);
+
+    // --------------------------------------------
+    // Shared rows holding a given content (idx_address_content_hash), normally 0 or 1
+    // --------------------------------------------
+	List<Address> findByContentHash(String contentHash);
+
+    // --------------------------------------------
+    // true while at least one student references the address (idx_student_address_id)
+    // --------------------------------------------
+	@Query("SELECT CASE WHEN COUNT(s) > 0 THEN true ELSE false END FROM Student s WHERE s.address.id = :id")
+	boolean isReferenced(@Param("id") Long id);
 }
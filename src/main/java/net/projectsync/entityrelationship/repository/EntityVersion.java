@@ -0,0 +1,8 @@
+package net.projectsync.entityrelationship.repository;
+
+// Id + @Version of one row (interface based projection)
+public interface EntityVersion {
+
+    Long getId();
+    Long getVersion();
+}
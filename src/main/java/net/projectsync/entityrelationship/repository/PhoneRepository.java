@@ -1,8 +1,27 @@
 package net.projectsync.entityrelationship.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import net.projectsync.entityrelationship.model.Phone;
 
 public interface PhoneRepository extends JpaRepository<Phone, Long> {
 
+	// --------------------------------------------
+	// Versions of some phones of a student (write precheck), no entity is loaded
+	// --------------------------------------------
+	@Query("SELECT ph.id AS id, ph.version AS version FROM Phone ph WHERE ph.student.id = :studentId AND ph.id IN :ids")
+	List<EntityVersion> findVersions(@Param("studentId") Long studentId, @Param("ids") Collection<Long> ids);
+
+    // --------------------------------------------
+    // Set-based delete of the phones of many students
+    // Bulk DML: bypasses the persistence context (no entity is loaded)
+    // --------------------------------------------
+	@Modifying
+	@Query("DELETE FROM Phone p WHERE p.student.id IN :studentIds")
+	int deleteByStudentIds(@Param("studentIds") Collection<Long> studentIds);
 }
@@ -1,10 +1,13 @@
 package net.projectsync.entityrelationship.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import net.projectsync.entityrelationship.dto.ProjectDTO;
 import net.projectsync.entityrelationship.model.Project;
 
 public interface ProjectRepository extends JpaRepository<Project, Long> {
@@ -18,6 +21,79 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
 	@Query("SELECT p FROM Project p INNER JOIN p.students s WHERE s.id = :id")
 	List<Project> findByStudent(@Param("id") Long id);
 
+    // --------------------------------------------
+    // Same as findByStudent but as a constructor projection
+	// Builds ProjectDTO straight from the result set (no managed Project)
+    // --------------------------------------------
+	@Query("SELECT new net.projectsync.entityrelationship.dto.ProjectDTO(p.id, p.version, p.projectName) "
+			+ "FROM Student s INNER JOIN s.projects p WHERE s.id = :id ORDER BY p.id")
+	List<ProjectDTO> findDTOsByStudent(@Param("id") Long id);
+
+    // --------------------------------------------
+    // Which of the given ids exist (one IN query, ids only)
+    // --------------------------------------------
+	@Query("SELECT p.id FROM Project p WHERE p.id IN :ids")
+	List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // --------------------------------------------
+    // Project by name (uk_project_normalized_name), name = Project.normalize(projectName)
+    // Rows created before the column existed have normalized_name NULL until the one-off merge
+    // (profile merge-projects) fills it: they are matched on LOWER(TRIM(project_name)) meanwhile.
+    // Several legacy rows may match: the oldest one first
+    // --------------------------------------------
+	@Query("SELECT p FROM Project p WHERE p.normalizedName = :name "
+			+ "OR (p.normalizedName IS NULL AND LOWER(TRIM(p.projectName)) = :name) ORDER BY p.id")
+	List<Project> findByName(@Param("name") String normalizedName);
+
+    // --------------------------------------------
+    // Duplicate merge (see ProjectService.mergeDuplicates): links of the duplicates
+    // are moved to the surviving project, then the duplicates are deleted.
+    // Set-based statements, no Student is loaded
+    // --------------------------------------------
+	@Query("SELECT DISTINCT s.id AS id, s.version AS version FROM Student s INNER JOIN s.projects p WHERE p.id IN :ids")
+	List<StudentIdVersion> findStudentVersions(@Param("ids") Collection<Long> ids);
+
+	// students already linked to the survivor keep their single link
+	@Modifying
+	@Query(value = "INSERT INTO {h-schema}students_projects (student_id, project_id) "
+			+ "SELECT DISTINCT sp.student_id, :survivor FROM {h-schema}students_projects sp "
+			+ "WHERE sp.project_id IN :ids AND NOT EXISTS (SELECT 1 FROM {h-schema}students_projects x "
+			+ "WHERE x.student_id = sp.student_id AND x.project_id = :survivor)", nativeQuery = true)
+	int copyLinks(@Param("ids") Collection<Long> ids, @Param("survivor") Long survivor);
+
+	@Modifying
+	@Query(value = "DELETE FROM {h-schema}students_projects WHERE project_id IN :ids", nativeQuery = true)
+	int deleteLinks(@Param("ids") Collection<Long> ids);
+
+	@Modifying
+	@Query("DELETE FROM Project p WHERE p.id IN :ids")
+	int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // --------------------------------------------
+    // Keyset page of projects + student count
+    // The page is cut first (subquery, primary key order), then only its
+    // students_projects rows are aggregated: 1 statement, cost bound by the page
+    // --------------------------------------------
+	@Query(value = "SELECT p.id AS id, p.version AS version, p.project_name AS projectName, "
+			+ "COUNT(sp.student_id) AS studentCount "
+			+ "FROM (SELECT id, version, project_name FROM {h-schema}project WHERE id > :after ORDER BY id LIMIT :limit) p "
+			+ "LEFT JOIN {h-schema}students_projects sp ON sp.project_id = p.id "
+			+ "GROUP BY p.id, p.version, p.project_name ORDER BY p.id", nativeQuery = true)
+	List<ProjectStudentCountRow> findPageWithStudentCount(@Param("after") long after, @Param("limit") int limit);
+
+    // --------------------------------------------
+    // Top projects by number of students
+    // One GROUP BY over students_projects (idx_students_projects_project_id),
+    // only the n winners are joined to project. Projects without students are not ranked
+    // --------------------------------------------
+	@Query(value = "SELECT p.id AS id, p.version AS version, p.project_name AS projectName, "
+			+ "c.student_count AS studentCount "
+			+ "FROM (SELECT sp.project_id, COUNT(*) AS student_count FROM {h-schema}students_projects sp "
+			+ "GROUP BY sp.project_id ORDER BY student_count DESC, sp.project_id LIMIT :n) c "
+			+ "INNER JOIN {h-schema}project p ON p.id = c.project_id "
+			+ "ORDER BY c.student_count DESC, p.id", nativeQuery = true)
+	List<ProjectStudentCountRow> findTopByStudentCount(@Param("n") int n);
+
     // --------------------------------------------
     // Find projects with students
     // Intention: Active projects only. Excludes orphan projects
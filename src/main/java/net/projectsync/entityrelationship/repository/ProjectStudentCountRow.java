@@ -0,0 +1,15 @@
+package net.projectsync.entityrelationship.repository;
+
+/*
+ * Project columns + number of linked students (interface based projection, native GROUP BY)
+ *
+ * - Counted on students_projects only: the student table is never read
+ * - Getter names must match the aliases used in the SQL query
+ */
+public interface ProjectStudentCountRow {
+
+    Long getId();
+    Long getVersion();
+    String getProjectName();
+    Long getStudentCount();
+}
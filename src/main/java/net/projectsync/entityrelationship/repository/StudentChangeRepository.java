@@ -0,0 +1,30 @@
+package net.projectsync.entityrelationship.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import net.projectsync.entityrelationship.model.StudentChange;
+
+public interface StudentChangeRepository extends JpaRepository<StudentChange, Long> {
+
+    // --------------------------------------------
+    // Next batch of the change feed
+    // feedSeq > :after ORDER BY feedSeq: range scan of uk_student_change_feed_seq, Pageable contributes the LIMIT
+    // rows not relayed yet (feedSeq null) are never returned
+    // --------------------------------------------
+	@Query("SELECT c FROM StudentChange c WHERE c.feedSeq > :after ORDER BY c.feedSeq")
+	List<StudentChange> findBatch(@Param("after") Long after, Pageable pageable);
+
+    // --------------------------------------------
+    // Committed rows waiting for their feedSeq (StudentChangeRelay), oldest id first
+    // --------------------------------------------
+	@Query("SELECT c FROM StudentChange c WHERE c.feedSeq IS NULL ORDER BY c.seq")
+	List<StudentChange> findUnrelayed(Pageable pageable);
+
+	// starting point of a new head row: above every cursor a reader of the seq based feed may hold
+	@Query("SELECT COALESCE(MAX(c.seq), 0) FROM StudentChange c")
+	Long findMaxSeq();
+}
@@ -0,0 +1,31 @@
+package net.projectsync.entityrelationship.repository;
+
+/*
+ * Flat row of Student + Address + Phone (interface based projection)
+ *
+ * - One row per phone (or a single row with null phone columns)
+ * - Values are read straight from the result set:
+ *     no managed entities, no dirty-check snapshots, no proxies
+ * - Getter names must match the aliases used in the JPQL query
+ */
+public interface StudentFullRow {
+
+    Long getId();
+    Long getVersion();
+    String getFirstName();
+    String getLastName();
+    String getEmail();
+
+    Long getAddressId();
+    Long getAddressVersion();
+    String getHouseName();
+    String getStreetNo();
+    String getCity();
+    String getState();
+    String getCountry();
+
+    Long getPhoneId();
+    Long getPhoneVersion();
+    String getPhoneModel();
+    String getPhoneNumber();
+}
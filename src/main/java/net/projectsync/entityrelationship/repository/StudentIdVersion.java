@@ -0,0 +1,8 @@
+package net.projectsync.entityrelationship.repository;
+
+// Student id + version (interface based projection)
+public interface StudentIdVersion {
+
+    Long getId();
+    Long getVersion();
+}
@@ -1,9 +1,12 @@
 package net.projectsync.entityrelationship.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -16,7 +19,7 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
 	
     /*
      * -------------------------------------------
-     * Student + Address (OneToOne)
+     * Student + Address (ManyToOne)
      * -------------------------------------------
      * LEFT JOIN FETCH ensures:
      *   - Student is returned even if address is NULL
@@ -57,16 +60,119 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
 	@Query("SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.projects WHERE s.id = :id")
 	Optional<Student> fetchProjects(@Param("id") Long id);
 
+    /*
+     * -------------------------------------------
+     * Student + Address + Phones as a flat projection
+     * -------------------------------------------
+     * Scalar select (no FETCH):
+     *   - Returns values only, nothing is attached to the persistence context
+     *   - Phones multiply the rows, projects are read by a second query
+     *     to avoid a phones x projects cartesian product
+	*/
+	@Query("SELECT s.id AS id, s.version AS version, s.firstName AS firstName, s.lastName AS lastName, s.email AS email, "
+			+ "a.id AS addressId, a.version AS addressVersion, a.houseName AS houseName, a.streetNo AS streetNo, "
+			+ "a.city AS city, a.state AS state, a.country AS country, "
+			+ "ph.id AS phoneId, ph.version AS phoneVersion, ph.phoneModel AS phoneModel, ph.phoneNumber AS phoneNumber "
+			+ "FROM Student s LEFT JOIN s.address a LEFT JOIN s.phones ph WHERE s.id = :id ORDER BY ph.id")
+	List<StudentFullRow> findFullRows(@Param("id") Long id);
+
+    /*
+     * -------------------------------------------
+     * Version tuple only (ETag / If-Match)
+     * -------------------------------------------
+     * One statement, scalar subqueries keyed by student_id:
+     *   - no entity, no collection is loaded
+     *   - phone.student_id is indexed, students_projects has (student_id, project_id) as primary key
+	*/
+	@Query("SELECT s.version AS version, COALESCE(a.id, 0) AS addressId, COALESCE(a.version, 0) AS addressVersion, "
+			+ "(SELECT COUNT(ph) FROM Phone ph WHERE ph.student = s) AS phoneCount, "
+			+ "(SELECT COALESCE(SUM(ph.id), 0) FROM Phone ph WHERE ph.student = s) AS phoneIdSum, "
+			+ "(SELECT COALESCE(SUM(ph.version), 0) FROM Phone ph WHERE ph.student = s) AS phoneVersionSum, "
+			+ "(SELECT COUNT(p) FROM Student s2 INNER JOIN s2.projects p WHERE s2 = s) AS projectCount, "
+			+ "(SELECT COALESCE(SUM(p.id), 0) FROM Student s2 INNER JOIN s2.projects p WHERE s2 = s) AS projectIdSum, "
+			+ "(SELECT COALESCE(SUM(p.version), 0) FROM Student s2 INNER JOIN s2.projects p WHERE s2 = s) AS projectVersionSum "
+			+ "FROM Student s LEFT JOIN s.address a WHERE s.id = :id")
+	Optional<StudentVersionRow> findVersionRow(@Param("id") Long id);
+
+    /*
+     * -------------------------------------------
+     * Student + Address versions only (write precheck)
+     * -------------------------------------------
+	*/
+	@Query("SELECT s.version AS version, a.id AS addressId, a.version AS addressVersion "
+			+ "FROM Student s LEFT JOIN s.address a WHERE s.id = :id")
+	Optional<StudentRootVersion> findRootVersion(@Param("id") Long id);
+
+    /*
+     * -------------------------------------------
+     * All students + Address (legacy GET /api/v1/students without paging)
+     * -------------------------------------------
+	*/
+	@Query("SELECT s FROM Student s LEFT JOIN FETCH s.address ORDER BY s.id")
+	List<Student> findAllWithAddress();
+
+    /*
+     * -------------------------------------------
+     * Keyset page (Student + Address)
+     * -------------------------------------------
+     * WHERE id > :after ORDER BY id:
+     *   - Uses the primary key index, cost does not grow with the offset
+     *   - Pageable only contributes the LIMIT (no count query for List)
+     *   - JOIN FETCH on a to-one keeps LIMIT in SQL (no in-memory paging)
+	*/
+	@Query("SELECT s FROM Student s LEFT JOIN FETCH s.address WHERE s.id > :after ORDER BY s.id")
+	List<Student> findPageAfter(@Param("after") Long after, Pageable pageable);
+
+    /*
+     * -------------------------------------------
+     * Students BY ids + Address (search results, ids come from the in-memory index)
+     * -------------------------------------------
+	*/
+	@Query("SELECT s FROM Student s LEFT JOIN FETCH s.address WHERE s.id IN :ids ORDER BY s.id")
+	List<Student> findAllWithAddressByIds(@Param("ids") Collection<Long> ids);
+
+    /*
+     * -------------------------------------------
+     * Search index feed (see search.StudentSearchIndexer)
+     * -------------------------------------------
+     * Scalar rows, one per student x project: names, email and project names only
+	*/
+	@Query("SELECT s.id AS id, s.firstName AS firstName, s.lastName AS lastName, s.email AS email, "
+			+ "p.id AS projectId, p.projectName AS projectName "
+			+ "FROM Student s LEFT JOIN s.projects p WHERE s.id IN :ids")
+	List<StudentSearchRow> findSearchRows(@Param("ids") Collection<Long> ids);
+
+	@Query("SELECT s.id FROM Student s WHERE s.id > :after ORDER BY s.id")
+	List<Long> findIdsAfter(@Param("after") Long after, Pageable pageable);
+
+    /*
+     * -------------------------------------------
+     * Batch fetch of collections for a set of students
+     * -------------------------------------------
+     * Same idea as fetchPhones / fetchProjects but keyed by many ids:
+     *   - Students are already in the persistence context
+     *   - Hibernate initializes their collections from this result
+     *   - 1 query per collection for the whole page (no N+1)
+	*/
+	@Query("SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.phones WHERE s.id IN :ids")
+	List<Student> fetchPhonesIn(@Param("ids") Collection<Long> ids);
+
+	@Query("SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.projects WHERE s.id IN :ids")
+	List<Student> fetchProjectsIn(@Param("ids") Collection<Long> ids);
+
     /*
      * -------------------------------------------
      * Students BY Project Name
      * -------------------------------------------
      * INNER JOIN:
      *   - Only students linked to project are returned
-     *   - Filters using projectName
+     *   - Filters using normalizedName (uk_project_normalized_name): pass Project.normalize(name)
+     *   - Legacy rows (normalized_name NULL, see ProjectRepository.findByName): LOWER(TRIM(projectName))
+     * LEFT JOIN FETCH address: no proxy per student (phones / projects: fetchPhonesIn / fetchProjectsIn)
 	*/
-	@Query("SELECT DISTINCT s FROM Student s INNER JOIN s.projects p WHERE p.projectName = :name")
-	List<Student> findByProjectName(@Param("name") String name);
+	@Query("SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.address INNER JOIN s.projects p WHERE "
+			+ "(p.normalizedName = :name OR (p.normalizedName IS NULL AND LOWER(TRIM(p.projectName)) = :name))")
+	List<Student> findByProjectName(@Param("name") String normalizedName);
 
     /*
      * -------------------------------------------
@@ -74,8 +180,9 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
      * -------------------------------------------
      * INNER JOIN:
      *   - Removes students who have no phones
+     * LEFT JOIN FETCH address: no proxy per student
 	*/
-	@Query("SELECT DISTINCT s FROM Student s INNER JOIN s.phones p")
+	@Query("SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.address INNER JOIN s.phones p")
 	List<Student> withPhones();
 
     /*
@@ -83,10 +190,34 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
      * Students WITHOUT Phones
      * -------------------------------------------
      * LEFT JOIN + NULL condition detects missing relation
+     * LEFT JOIN FETCH address: no proxy per student
 	*/
-	@Query("SELECT s FROM Student s LEFT JOIN s.phones p WHERE p IS NULL")
+	@Query("SELECT s FROM Student s LEFT JOIN FETCH s.address LEFT JOIN s.phones p WHERE p IS NULL")
 	List<Student> withoutPhones();
 
+    /*
+     * -------------------------------------------
+     * Bulk delete (see StudentBulkService.deleteAll)
+     * -------------------------------------------
+     * Ids only: nothing is loaded into the persistence context
+     * name: Project.normalize(projectName)
+     * DISTINCT: a student may be linked to several legacy projects of the same name
+	*/
+	@Query("SELECT DISTINCT s.id FROM Student s INNER JOIN s.projects p WHERE "
+			+ "(p.normalizedName = :name OR (p.normalizedName IS NULL AND LOWER(TRIM(p.projectName)) = :name))")
+	List<Long> findIdsByProjectName(@Param("name") String normalizedName);
+
+	@Query("SELECT s.id FROM Student s WHERE s.id IN :ids")
+	List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+	@Query("SELECT s.address.id FROM Student s WHERE s.id IN :ids AND s.address IS NOT NULL")
+	List<Long> findAddressIds(@Param("ids") Collection<Long> ids);
+
+	// Hibernate first deletes the students_projects rows of these students (owning side of the ManyToMany)
+	@Modifying
+	@Query("DELETE FROM Student s WHERE s.id IN :ids")
+	int deleteByIds(@Param("ids") Collection<Long> ids);
+
     /*
      * -------------------------------------------
      * Students WITH Address
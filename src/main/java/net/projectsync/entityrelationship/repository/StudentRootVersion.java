@@ -0,0 +1,9 @@
+package net.projectsync.entityrelationship.repository;
+
+// Student version + address id / version (interface based projection, one row)
+public interface StudentRootVersion {
+
+    Long getVersion();
+    Long getAddressId();
+    Long getAddressVersion();
+}
@@ -0,0 +1,18 @@
+package net.projectsync.entityrelationship.repository;
+
+/*
+ * Searchable columns of a student (interface based projection, see search package)
+ *
+ * - projectId / projectName: one row per linked project (null when the student has none)
+ * - Getter names must match the aliases used in the JPQL query
+ */
+public interface StudentSearchRow {
+
+    Long getId();
+    String getFirstName();
+    String getLastName();
+    String getEmail();
+
+    Long getProjectId();
+    String getProjectName();
+}
@@ -0,0 +1,24 @@
+package net.projectsync.entityrelationship.repository;
+
+/*
+ * Version tuple of a Student aggregate (interface based projection, one row)
+ *
+ * Ids and versions only grow, so (count, sum of ids, sum of versions) of a collection
+ * changes whenever an element is added, removed, replaced or updated.
+ * Missing address / empty collections are reported as 0.
+ */
+public interface StudentVersionRow {
+
+    Long getVersion();
+
+    Long getAddressId();
+    Long getAddressVersion();
+
+    Long getPhoneCount();
+    Long getPhoneIdSum();
+    Long getPhoneVersionSum();
+
+    Long getProjectCount();
+    Long getProjectIdSum();
+    Long getProjectVersionSum();
+}
@@ -0,0 +1,20 @@
+package net.projectsync.entityrelationship.search;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/*
+ * What StudentSearchIndex knows about one student (built from StudentSearchRow)
+ */
+@Getter
+@RequiredArgsConstructor
+public class StudentDocument {
+
+    private final long id;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final Map<Long, String> projects = new LinkedHashMap<>();		// project id -> project name
+}
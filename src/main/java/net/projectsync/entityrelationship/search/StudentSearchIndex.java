@@ -0,0 +1,292 @@
+package net.projectsync.entityrelationship.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import org.springframework.stereotype.Component;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * In-process inverted index over firstName, lastName, email and project names
+ *
+ * - Tokens: lower case, split on anything that is not a letter or a digit
+ *     "ann.lee@x.org" -> ann, lee, x, org
+ * - Postings are sorted long[] (no boxing), replaced copy-on-write:
+ *     readers never lock, writers are serialized (synchronized)
+ * - Sorted token maps (ConcurrentSkipListMap): a query term matches every token
+ *   it is a prefix of, via subMap(term, term + Character.MAX_VALUE)
+ * - Project names are indexed per PROJECT id, students are reached through
+ *   studentsByProject: renaming a project re-indexes one entry, not its students
+ *
+ * Fed by StudentSearchIndexer (startup load + StudentChangedEvent after commit).
+ * Metric: students.search.documents
+ */
+@Component
+public class StudentSearchIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final long[] EMPTY = new long[0];
+
+    private final ConcurrentSkipListMap<String, long[]> studentPostings = new ConcurrentSkipListMap<>();	// name / email token -> student ids
+    private final ConcurrentSkipListMap<String, long[]> projectPostings = new ConcurrentSkipListMap<>();	// project name token -> project ids
+    private final ConcurrentHashMap<Long, long[]> studentsByProject = new ConcurrentHashMap<>();			// project id -> student ids
+
+    // Forward maps (what to remove on re-index), only used under the write lock
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, String[]> projectTokens = new HashMap<>();
+
+    public StudentSearchIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("students.search.documents", this, StudentSearchIndex::size)
+                .description("Students held by the in-memory search index")
+                .register(meterRegistry);
+    }
+
+    // =====================================================
+    // READ
+    // =====================================================
+
+    // Every query term must match (AND), each term as a prefix.
+    // Returns at most limit ids, ascending
+    public long[] search(String query, int limit) {
+
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return EMPTY;
+        }
+
+        long[] result = null;
+        for (String term : terms) {
+            long[] matches = match(term);
+            result = result == null ? matches : intersect(result, matches);
+            if (result.length == 0) {
+                return EMPTY;
+            }
+        }
+        return result.length > limit ? Arrays.copyOf(result, limit) : result;
+    }
+
+    public synchronized int size() {
+        return documents.size();
+    }
+
+    // Students having a name / email token or a project token starting with term
+    private long[] match(String term) {
+
+        List<long[]> postings = new ArrayList<>(prefixRange(studentPostings, term).values());
+        for (long[] projectIds : prefixRange(projectPostings, term).values()) {
+            for (long projectId : projectIds) {
+                postings.add(studentsByProject.getOrDefault(projectId, EMPTY));
+            }
+        }
+        return union(postings);
+    }
+
+    private static NavigableMap<String, long[]> prefixRange(ConcurrentSkipListMap<String, long[]> map, String term) {
+        return map.subMap(term, true, term + Character.MAX_VALUE, false);
+    }
+
+    // =====================================================
+    // WRITE
+    // =====================================================
+
+    // Batch of documents: every posting touched by the batch is copied once, not once per student
+    public synchronized void putAll(Collection<StudentDocument> docs) {
+
+        Map<String, List<Long>> addedByToken = new HashMap<>();
+        Map<Long, List<Long>> addedByProject = new HashMap<>();
+
+        for (StudentDocument d : docs) {
+            remove(d.getId());
+
+            Document doc = new Document(tokens(d.getFirstName(), d.getLastName(), d.getEmail()),
+                    toArray(d.getProjects().keySet()));
+            for (String token : doc.tokens) {
+                addedByToken.computeIfAbsent(token, t -> new ArrayList<>()).add(d.getId());
+            }
+            for (long projectId : doc.projectIds) {
+                addedByProject.computeIfAbsent(projectId, p -> new ArrayList<>()).add(d.getId());
+            }
+            documents.put(d.getId(), doc);
+        }
+
+        addedByToken.forEach((token, ids) -> studentPostings.merge(token, toArray(ids), StudentSearchIndex::merge));
+        addedByProject.forEach((projectId, ids) -> studentsByProject.merge(projectId, toArray(ids), StudentSearchIndex::merge));
+        for (StudentDocument d : docs) {
+            d.getProjects().forEach(this::putProject);		// also picks up renames of shared projects
+        }
+    }
+
+    public synchronized void removeAll(Collection<Long> ids) {
+        ids.forEach(this::remove);
+    }
+
+    private void remove(long id) {
+
+        Document doc = documents.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (String token : doc.tokens) {
+            studentPostings.computeIfPresent(token, (t, ids) -> without(ids, id));
+        }
+        for (long projectId : doc.projectIds) {
+            studentsByProject.computeIfPresent(projectId, (p, ids) -> without(ids, id));
+            if (!studentsByProject.containsKey(projectId)) {
+                removeProject(projectId);		// no student left: the project can no longer match
+            }
+        }
+    }
+
+    private void putProject(long projectId, String name) {
+
+        String[] current = projectTokens.get(projectId);
+        String[] tokens = tokens(name);
+        if (Arrays.equals(current, tokens)) {
+            return;
+        }
+        removeProject(projectId);
+        for (String token : tokens) {
+            projectPostings.merge(token, new long[] { projectId }, StudentSearchIndex::merge);
+        }
+        projectTokens.put(projectId, tokens);
+    }
+
+    private void removeProject(long projectId) {
+        String[] tokens = projectTokens.remove(projectId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            projectPostings.computeIfPresent(token, (t, ids) -> without(ids, projectId));
+        }
+    }
+
+    // =====================================================
+    // TOKENS
+    // =====================================================
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private static String[] tokens(String... fields) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String field : fields) {
+            tokens.addAll(tokenize(field));
+        }
+        return tokens.stream().sorted().toArray(String[]::new);
+    }
+
+    // =====================================================
+    // SORTED long[] SETS (copy-on-write)
+    // =====================================================
+    // Both sorted, result sorted without duplicates
+    private static long[] merge(long[] a, long[] b) {
+        long[] result = new long[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            long next;
+            if (j == b.length || (i < a.length && a[i] <= b[j])) {
+                next = a[i++];
+            } else {
+                next = b[j++];
+            }
+            if (n == 0 || result[n - 1] != next) {
+                result[n++] = next;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    // null -> the key is removed from the map (compute semantics)
+    private static long[] without(long[] ids, long id) {
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null;
+        }
+        long[] result = new long[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, pos);
+        System.arraycopy(ids, pos + 1, result, pos, ids.length - pos - 1);
+        return result;
+    }
+
+    private static long[] union(List<long[]> postings) {
+        if (postings.isEmpty()) {
+            return EMPTY;
+        }
+        if (postings.size() == 1) {
+            return postings.get(0);
+        }
+        int total = 0;
+        for (long[] ids : postings) {
+            total += ids.length;
+        }
+        long[] all = new long[total];
+        int n = 0;
+        for (long[] ids : postings) {
+            System.arraycopy(ids, 0, all, n, ids.length);
+            n += ids.length;
+        }
+        Arrays.sort(all);
+        int distinct = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) {
+                all[distinct++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, distinct);
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static long[] toArray(Collection<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    private static class Document {
+        private final String[] tokens;
+        private final long[] projectIds;
+
+        private Document(String[] tokens, long[] projectIds) {
+            this.tokens = tokens;
+            this.projectIds = projectIds;
+        }
+    }
+}
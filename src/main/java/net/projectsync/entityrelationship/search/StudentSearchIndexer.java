@@ -0,0 +1,164 @@
+package net.projectsync.entityrelationship.search;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.projectsync.entityrelationship.config.AppProperties;
+import net.projectsync.entityrelationship.repository.StudentRepository;
+import net.projectsync.entityrelationship.repository.StudentSearchRow;
+import net.projectsync.entityrelationship.service.StudentChangedEvent;
+
+/*
+ * Keeps StudentSearchIndex in sync with the database
+ *
+ * - Startup: every student, keyset pages of app.read.in-clause-size ids
+ * - StudentChangedEvent, after commit: the changed ids are only queued, the writer's thread
+ *   returns at once and holds no second connection
+ * - One dedicated thread ("search-index-") drains the queue: batches of up to
+ *   app.read.in-clause-size ids re-read in one transaction of its own
+ *   (rows found -> re-indexed, rows gone -> removed), whatever the event type
+ * - Single thread: reads and applies never overlap, and an id queued after a commit is
+ *   always re-read after it, so an older read can never overwrite a newer one.
+ *   The startup load runs on the same thread for the same reason
+ * - Not read-only on purpose, so the rows come from the primary, never from a lagging replica
+ *
+ * Metric: students.search.pending (ids queued, not yet re-read)
+ */
+@Slf4j
+@Component
+public class StudentSearchIndexer implements DisposableBean {
+
+    private final StudentSearchIndex index;
+    private final StudentRepository studentRepository;
+    private final AppProperties appProperties;
+    private final TransactionTemplate tx;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();		// duplicates collapse while queued
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("search-index-"));
+
+    public StudentSearchIndexer(StudentSearchIndex index, StudentRepository studentRepository,
+                                AppProperties appProperties, PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.index = index;
+        this.studentRepository = studentRepository;
+        this.appProperties = appProperties;
+        this.tx = new TransactionTemplate(transactionManager);
+        Gauge.builder("students.search.pending", pending, Set::size)
+                .description("Student ids waiting to be re-read by the search indexer")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        worker.execute(this::load);
+    }
+
+    private void load() {
+
+        int pageSize = appProperties.getRead().getInClauseSize();
+        long started = System.nanoTime();
+
+        try {
+            long after = 0L;
+            List<Long> ids;
+            do {
+                long cursor = after;
+                ids = tx.execute(status -> studentRepository.findIdsAfter(cursor, PageRequest.of(0, pageSize)));
+                if (!ids.isEmpty()) {
+                    reindex(ids);
+                    after = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == pageSize);
+        } catch (RuntimeException e) {
+            log.error("Search index load failed after {} students", index.size(), e);
+            return;
+        }
+
+        log.info("Search index loaded: {} students in {} ms", index.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStudentChanged(StudentChangedEvent event) {
+
+        pending.addAll(event.getStudentIds());
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                worker.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                drainScheduled.set(false);		// shutting down
+            }
+        }
+    }
+
+    // Ids queued while a batch is read are picked up by the next loop iteration
+    // (or by the next drain, once the flag is cleared)
+    private void drain() {
+
+        drainScheduled.set(false);
+        int batchSize = appProperties.getRead().getInClauseSize();
+
+        while (!pending.isEmpty()) {
+            List<Long> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            Iterator<Long> it = pending.iterator();
+            while (it.hasNext() && batch.size() < batchSize) {
+                batch.add(it.next());
+                it.remove();
+            }
+
+            // the writes are committed already: a failure here only leaves the index stale
+            try {
+                reindex(batch);
+            } catch (RuntimeException e) {
+                log.warn("Search index not updated for {} students: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    // Read + apply, only ever called on the worker thread
+    private void reindex(List<Long> ids) {
+
+        List<StudentSearchRow> rows = tx.execute(status -> studentRepository.findSearchRows(ids));
+
+        // one row per student x project
+        Map<Long, StudentDocument> docs = new LinkedHashMap<>();
+        for (StudentSearchRow row : rows) {
+            StudentDocument doc = docs.computeIfAbsent(row.getId(),
+                    id -> new StudentDocument(id, row.getFirstName(), row.getLastName(), row.getEmail()));
+            if (row.getProjectId() != null) {
+                doc.getProjects().put(row.getProjectId(), row.getProjectName());
+            }
+        }
+
+        List<Long> gone = new ArrayList<>(ids);
+        gone.removeAll(docs.keySet());
+
+        index.putAll(docs.values());
+        index.removeAll(gone);
+    }
+
+    @Override
+    public void destroy() {
+        worker.shutdownNow();
+    }
+}
@@ -0,0 +1,134 @@
+package net.projectsync.entityrelationship.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import javax.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import net.projectsync.entityrelationship.config.AppProperties;
+import net.projectsync.entityrelationship.model.Address;
+import net.projectsync.entityrelationship.repository.AddressRepository;
+
+/*
+ * Decides which Address row a student references
+ *
+ * - app.addresses.shared=false (default): one private row per student, updated in place
+ * - app.addresses.shared=true: identical addresses (same 5 fields) resolve to ONE canonical row
+ *     -> looked up by content hash: in-memory hash -> id cache, then idx_address_content_hash
+ *     -> found rows are compared field by field (a hash match alone is not trusted)
+ *     -> new canonical rows are persisted right away: a second student of the same batch finds them
+ * - Shared rows (contentHash set) are immutable: PUT / PATCH copy them (copyOnWrite) and the student
+ *   moves to the row of the new content. This holds even after the mode is switched off
+ * - release(): the row a student left is deleted when no student references it any more.
+ *   A student attaching to that row in a concurrent transaction fails on the foreign key (request error),
+ *   the retry creates a new row
+ *
+ * Metrics: CaffeineCacheMetrics (cache=addresses.canonical)
+ */
+@Component
+public class AddressResolver {
+
+    private final boolean shared;
+    private final EntityManager entityManager;
+    private final AddressRepository addressRepository;
+    private final Cache<String, Long> canonicalIds;		// content hash -> address id, verified on use
+
+    public AddressResolver(AppProperties appProperties, EntityManager entityManager,
+                           AddressRepository addressRepository, MeterRegistry meterRegistry) {
+        this.shared = appProperties.getAddresses().isShared();
+        this.entityManager = entityManager;
+        this.addressRepository = addressRepository;
+        this.canonicalIds = Caffeine.newBuilder()
+                .maximumSize(appProperties.getAddresses().getCacheSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, canonicalIds, "addresses.canonical");
+    }
+
+    // The row to reference for this content: the canonical one in shared mode, a itself otherwise.
+    // a must not be a shared row (see copyOnWrite)
+    public Address resolve(Address a) {
+
+        if (!shared) {
+            return a;
+        }
+
+        String hash = contentHash(a);
+
+        Long cachedId = canonicalIds.getIfPresent(hash);
+        if (cachedId != null) {
+            Address cached = entityManager.find(Address.class, cachedId);	// persistence context / second-level cache first
+            if (cached != null && sameContent(cached, a)) {
+                return cached;
+            }
+            canonicalIds.invalidate(hash);								// row deleted (orphan) or never committed
+        }
+
+        for (Address candidate : addressRepository.findByContentHash(hash)) {
+            if (sameContent(candidate, a)) {
+                canonicalIds.put(hash, candidate.getId());
+                return candidate;
+            }
+        }
+
+        Address canonical = a.getId() == null ? a : copyOf(a);		// a private row is never turned into a shared one
+        canonical.setContentHash(hash);
+        entityManager.persist(canonical);							// id assigned now (sequence), INSERT at flush
+        canonicalIds.put(hash, canonical.getId());
+        return canonical;
+    }
+
+    // true -> the setters must be applied to copyOf(a), then resolve() picks the row
+    public boolean copyOnWrite(Address a) {
+        return shared || a.getContentHash() != null;
+    }
+
+    // The student no longer references a: deleted unless another student still does
+    public void release(Address a) {
+        if (a.getContentHash() != null && addressRepository.isReferenced(a.getId())) {
+            return;
+        }
+        entityManager.remove(a);		// private rows are referenced by one student only: no check needed
+    }
+
+    public static Address copyOf(Address a) {
+        Address copy = new Address();
+        copy.setHouseName(a.getHouseName());
+        copy.setStreetNo(a.getStreetNo());
+        copy.setCity(a.getCity());
+        copy.setState(a.getState());
+        copy.setCountry(a.getCountry());
+        return copy;
+    }
+
+    private static boolean sameContent(Address a, Address b) {
+        return Objects.equals(a.getHouseName(), b.getHouseName())
+                && Objects.equals(a.getStreetNo(), b.getStreetNo())
+                && Objects.equals(a.getCity(), b.getCity())
+                && Objects.equals(a.getState(), b.getState())
+                && Objects.equals(a.getCountry(), b.getCountry());
+    }
+
+    // SHA-256 (hex) of the fields, null and "" kept distinct
+    static String contentHash(Address a) {
+        StringBuilder content = new StringBuilder(128);
+        for (String field : new String[] { a.getHouseName(), a.getStreetNo(), a.getCity(), a.getState(), a.getCountry() }) {
+            content.append(field == null ? "\u0001" : field).append('\u0000');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);		// mandatory in every JRE
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package net.projectsync.entityrelationship.service;
+
+import java.util.Arrays;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+import lombok.RequiredArgsConstructor;
+import net.projectsync.entityrelationship.dto.CacheRegionStatsDTO;
+
+/*
+ * Second-level cache statistics per region, read from Hibernate Statistics
+ * (requires hibernate.generate_statistics=true, otherwise all counters stay 0)
+ */
+@Service
+@RequiredArgsConstructor
+public class CacheStatsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public List<CacheRegionStatsDTO> getRegionStats() {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toDTO(region, statistics.getDomainDataRegionStatistics(region)))
+                .toList();
+    }
+
+    private static CacheRegionStatsDTO toDTO(String region, CacheRegionStatistics stats) {
+        CacheRegionStatsDTO dto = new CacheRegionStatsDTO();
+        dto.setRegion(region);
+        dto.setHitCount(stats.getHitCount());
+        dto.setMissCount(stats.getMissCount());
+        dto.setPutCount(stats.getPutCount());
+        dto.setElementCountInMemory(stats.getElementCountInMemory() == CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN
+                ? -1 : stats.getElementCountInMemory());
+
+        long lookups = stats.getHitCount() + stats.getMissCount();
+        dto.setHitRatio(lookups == 0 ? 0.0 : (double) stats.getHitCount() / lookups);
+        return dto;
+    }
+}
@@ -0,0 +1,53 @@
+package net.projectsync.entityrelationship.service;
+
+import java.util.Objects;
+import javax.persistence.OptimisticLockException;
+import io.micrometer.core.instrument.Metrics;
+import net.projectsync.entityrelationship.dto.PhoneDTO;
+import net.projectsync.entityrelationship.dto.ProjectDTO;
+import net.projectsync.entityrelationship.dto.StudentUpdateDTO;
+
+// =====================================================
+// OPTIMISTIC LOCK HELPER
+// =====================================================
+// Shared by StudentService and ProjectResolver: compares the version held by the
+// client with the current one and fails the request before anything is written
+//
+// Metric: students.optimistic.conflicts{entity, source=request|commit}
+//   request -> the client sent a stale version / ETag
+//   commit  -> a concurrent transaction won the race (see OptimisticRetry)
+public class OptimisticLocks {
+
+    private OptimisticLocks() {}
+
+    public static void checkVersion(String type, Long entityId, Long currentVersion, Long incomingVersion) {
+
+        if (!Objects.equals(currentVersion, incomingVersion)) {
+            recordConflict(type, "request");
+        	String msg = String.format("%s %s has version %s but request used %s", type, entityId, currentVersion, incomingVersion);
+            throw new OptimisticLockException(msg);
+        }
+    }
+
+    // If-Match: same check on the aggregate ETag, absent header -> no precondition
+    public static void checkETag(String type, Long entityId, String currentETag, String ifMatch) {
+
+        if (ifMatch != null && !StudentETags.matches(ifMatch, currentETag, false)) {
+            recordConflict(type, "request");
+            String msg = String.format("%s %s has ETag %s but If-Match was %s", type, entityId, currentETag, ifMatch);
+            throw new PreconditionFailedException(msg);
+        }
+    }
+
+    // true when the update pins no version anywhere (root, address, phones, projects)
+    public static boolean carriesVersions(StudentUpdateDTO dto) {
+        return dto.getVersion() != null
+                || (dto.getAddress() != null && dto.getAddress().getVersion() != null)
+                || (dto.getPhones() != null && dto.getPhones().stream().map(PhoneDTO::getVersion).anyMatch(Objects::nonNull))
+                || (dto.getProjects() != null && dto.getProjects().stream().map(ProjectDTO::getVersion).anyMatch(Objects::nonNull));
+    }
+
+    static void recordConflict(String type, String source) {
+        Metrics.counter("students.optimistic.conflicts", "entity", type, "source", source).increment();
+    }
+}
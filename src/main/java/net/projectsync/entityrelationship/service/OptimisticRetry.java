@@ -0,0 +1,87 @@
+package net.projectsync.entityrelationship.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import io.micrometer.core.instrument.Metrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.projectsync.entityrelationship.config.AppProperties;
+
+/*
+ * Retries a write transaction that lost a race at commit time
+ *
+ * - Only OptimisticLockingFailureException is retried: Hibernate found a newer @Version
+ *   while flushing (another request committed first). A stale version sent by the client
+ *   (OptimisticLocks.checkVersion) is never retried.
+ * - Only for work that commutes (e.g. PATCH without any version): re-running it
+ *   on the latest state gives the result the client asked for
+ * - Must wrap the @Transactional call: every attempt is a new transaction
+ * - Backoff: exponential with full jitter, uniform in [0, min(max-backoff, initial-backoff * 2^(attempt-1))]
+ *
+ * Metrics:
+ *   students.optimistic.conflicts{entity, source=commit}
+ *   students.optimistic.retries{outcome=succeeded|exhausted}
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OptimisticRetry {
+
+    private final AppProperties appProperties;
+
+    // entity: reported in the metric when Hibernate does not name the stale entity (batched updates)
+    public <T> T execute(String entity, boolean commutes, Supplier<T> work) {
+
+        AppProperties.Retry retry = appProperties.getWrite().getRetry();
+        int maxAttempts = commutes ? Math.max(1, retry.getMaxAttempts()) : 1;
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = work.get();
+                if (attempt > 1) {
+                    Metrics.counter("students.optimistic.retries", "outcome", "succeeded").increment();
+                }
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                OptimisticLocks.recordConflict(entityOf(e, entity), "commit");
+                if (attempt >= maxAttempts) {
+                    if (maxAttempts > 1) {
+                        Metrics.counter("students.optimistic.retries", "outcome", "exhausted").increment();
+                    }
+                    throw e;
+                }
+                long delay = backoffMillis(attempt, retry);
+                log.debug("Optimistic lock conflict (attempt {}/{}), retrying in {} ms: {}", attempt, maxAttempts, delay, e.getMessage());
+                sleep(delay, e);
+            }
+        }
+    }
+
+    private static long backoffMillis(int attempt, AppProperties.Retry retry) {
+        long exponential = retry.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20);
+        long cap = Math.min(retry.getMaxBackoff().toMillis(), exponential);
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static void sleep(long millis, RuntimeException cause) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    private static String entityOf(OptimisticLockingFailureException e, String defaultEntity) {
+        if (e instanceof ObjectOptimisticLockingFailureException) {
+            String name = ((ObjectOptimisticLockingFailureException) e).getPersistentClassName();
+            if (name != null) {
+                return name.substring(name.lastIndexOf('.') + 1);
+            }
+        }
+        return defaultEntity;
+    }
+}
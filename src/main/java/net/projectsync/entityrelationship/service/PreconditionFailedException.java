@@ -0,0 +1,13 @@
+package net.projectsync.entityrelationship.service;
+
+import javax.persistence.OptimisticLockException;
+
+// If-Match did not match the current ETag -> 412 (see OptimisticLockAdvice)
+public class PreconditionFailedException extends OptimisticLockException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,54 @@
+package net.projectsync.entityrelationship.service;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.projectsync.entityrelationship.dto.ProjectMergeResultDTO;
+
+/*
+ * One-off command: merge duplicate projects and fill normalized_name (ProjectService.mergeDuplicates)
+ *
+ *   java -jar app.jar --spring.profiles.active=merge-projects
+ *
+ * - Profile merge-projects only, never part of a serving instance (no HTTP endpoint)
+ * - No web server (application-merge-projects.properties), the JVM exits when the merge is done:
+ *   0 on success, 1 when it failed (nothing is merged, one transaction)
+ * - Idempotent: running it again finds nothing to merge
+ * - Stop every serving instance before the merge, or restart them right after it: its after-commit work
+ *   (events, cache evictions) only reaches this JVM. A running instance would keep
+ *     the merged-away projects in the second-level cache (regions project, student-projects)
+ *     ProjectResolver name -> id entries of deleted projects: a student linked by name fails on the foreign key
+ *     search index documents and SSE subscribers that never heard of the change
+ *   (its StudentDTO cache recovers by itself: the project ids are part of the ETag checked on every GET)
+ */
+@Slf4j
+@Component
+@Profile("merge-projects")
+@RequiredArgsConstructor
+public class ProjectMergeRunner implements ApplicationRunner {
+
+    private final ProjectService projectService;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+
+        int exitCode = 0;
+        try {
+            ProjectMergeResultDTO result = projectService.mergeDuplicates();
+            log.info("Project merge done: {} names, {} projects merged, {} students affected",
+                    result.getNames(), result.getProjectsMerged(), result.getStudentsAffected());
+        } catch (RuntimeException e) {
+            log.error("Project merge failed, nothing was changed", e);
+            exitCode = 1;
+        }
+
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
@@ -0,0 +1,18 @@
+package net.projectsync.entityrelationship.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Published when a PUT / PATCH of a student changes the name of a shared Project
+ *
+ * - Every student linked to the project shows the new name (and project version),
+ *   not only the student of the request (its own StudentChangedEvent covers that one)
+ * - Handled after commit, like StudentChangedEvent
+ */
+@Getter
+@RequiredArgsConstructor
+public class ProjectRenamedEvent {
+
+    private final Long projectId;
+}
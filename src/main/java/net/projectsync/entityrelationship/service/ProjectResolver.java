@@ -0,0 +1,197 @@
+package net.projectsync.entityrelationship.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
+import org.hibernate.Session;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import net.projectsync.entityrelationship.config.AppProperties;
+import net.projectsync.entityrelationship.dto.ProjectDTO;
+import net.projectsync.entityrelationship.model.Project;
+import net.projectsync.entityrelationship.repository.ProjectRepository;
+
+/*
+ * Resolves the ProjectDTOs of a request into Project entities
+ *
+ * - All referenced ids are loaded with multiLoad: ids found in the persistence context
+ *   or the second-level cache ("project" region) cost nothing, the rest are loaded
+ *   with ONE query (WHERE id IN (...)) instead of one findById per project
+ * - Versions are verified for the whole list before any change is applied
+ * - DTOs without id are matched by name (Project.normalize, unique index uk_project_normalized_name):
+ *     in-memory name -> id cache, then one indexed query; the cached id is verified on use
+ *     (project renamed, merged or never committed -> looked up again)
+ *   No project of that name -> a new one, persisted right away so that the next student
+ *   of the same request / bulk chunk finds it. Two transactions creating the same name
+ *   concurrently: the second fails on the unique index
+ *
+ * Metrics: students.projects.resolution{outcome=resolved|matched|created},
+ *          CaffeineCacheMetrics (cache=projects.by-name)
+ */
+@Component
+public class ProjectResolver {
+
+    private final EntityManager entityManager;
+    private final ProjectRepository projectRepository;
+    private final Cache<String, Long> idsByName;			// normalized name -> project id
+    private final Counter resolved;
+    private final Counter matched;
+    private final Counter created;
+
+    public ProjectResolver(EntityManager entityManager, ProjectRepository projectRepository,
+                           AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.entityManager = entityManager;
+        this.projectRepository = projectRepository;
+        this.idsByName = Caffeine.newBuilder()
+                .maximumSize(appProperties.getProjects().getNameCacheSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByName, "projects.by-name");
+        this.resolved = Counter.builder("students.projects.resolution")
+                .description("Projects referenced by id and reused")
+                .tag("outcome", "resolved")
+                .register(meterRegistry);
+        this.matched = Counter.builder("students.projects.resolution")
+                .description("Projects referenced by name only and reused")
+                .tag("outcome", "matched")
+                .register(meterRegistry);
+        this.created = Counter.builder("students.projects.resolution")
+                .description("Projects created because no project had the requested name")
+                .tag("outcome", "created")
+                .register(meterRegistry);
+    }
+
+    // Result is aligned with dtos: result.get(i) is the project for dtos.get(i)
+    // checkVersions = false for create (project version is ignored)
+    public List<Project> resolve(List<ProjectDTO> dtos, boolean checkVersions) {
+
+        Map<Long, Project> existingById = loadExisting(dtos);
+
+        if (checkVersions) {
+            for (ProjectDTO dto : dtos) {
+                if (dto.getId() != null && dto.getVersion() != null) {
+                    Project p = existingById.get(dto.getId());
+                    OptimisticLocks.checkVersion("Project", p.getId(), p.getVersion(), dto.getVersion());
+                }
+            }
+        }
+
+        List<Project> result = new ArrayList<>(dtos.size());
+        Map<String, Project> byName = new HashMap<>();		// same name twice in the request -> one project
+        for (ProjectDTO dto : dtos) {
+            if (dto.getId() != null) {
+                result.add(existingById.get(dto.getId()));
+            } else if (dto.getProjectName() == null) {
+                result.add(create(null));
+            } else {
+                result.add(byName.computeIfAbsent(Project.normalize(dto.getProjectName()),
+                        name -> findOrCreate(dto.getProjectName())));
+            }
+        }
+
+        resolved.increment(dtos.stream().filter(dto -> dto.getId() != null).count());
+        return result;
+    }
+
+    // Existing project of that name, or a new (persisted) one
+    public Project findOrCreate(String projectName) {
+        Project existing = findByName(projectName);
+        if (existing != null) {
+            matched.increment();
+            return existing;
+        }
+        return create(projectName);
+    }
+
+    // null when no project has that (normalized) name
+    public Project findByName(String projectName) {
+
+        String name = Project.normalize(projectName);
+        if (name == null) {
+            return null;
+        }
+
+        Long cachedId = idsByName.getIfPresent(name);
+        if (cachedId != null) {
+            Project cached = entityManager.find(Project.class, cachedId);		// persistence context / second-level cache first
+            if (cached != null && name.equals(Project.normalize(cached.getProjectName()))) {
+                return cached;
+            }
+            idsByName.invalidate(name);
+        }
+
+        Project found = projectRepository.findByName(name).stream().findFirst().orElse(null);
+        if (found != null) {
+            idsByName.put(name, found.getId());
+        }
+        return found;
+    }
+
+    // Renaming p to projectName must not give two projects the same name
+    public void checkNameAvailable(Project p, String projectName) {
+        Project owner = findByName(projectName);
+        if (owner != null && !Objects.equals(owner.getId(), p.getId())) {
+            throw new DuplicateKeyException("Project name '" + projectName + "' is already used by project " + owner.getId());
+        }
+    }
+
+    private Project create(String projectName) {
+        Project p = new Project();
+        p.setProjectName(projectName);
+        entityManager.persist(p);						// id assigned now (sequence), INSERT at flush
+        if (p.getNormalizedName() != null) {
+            idsByName.put(p.getNormalizedName(), p.getId());
+        }
+        created.increment();
+        return p;
+    }
+
+    // At most one query for every id referenced by the request; fails on the first unknown id
+    private Map<Long, Project> loadExisting(List<ProjectDTO> dtos) {
+
+        Set<Long> ids = dtos.stream()
+                .map(ProjectDTO::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<Long, Project> byId = findExisting(ids);
+        for (Long id : ids) {
+            if (!byId.containsKey(id)) {
+                throw new EntityNotFoundException("Project not found: " + id);
+            }
+        }
+        return byId;
+    }
+
+    // Projects found among ids, unknown ids are simply absent (one query at most).
+    // Loaded projects stay in the persistence context: a later resolve() of the same ids costs nothing
+    public Map<Long, Project> findExisting(Collection<Long> ids) {
+
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        // multiLoad returns null entries for unknown ids
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Project.class)
+                .enableSessionCheck(true)
+                .multiLoad(new ArrayList<>(ids))
+                .stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+    }
+}
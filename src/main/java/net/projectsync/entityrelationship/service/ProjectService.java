@@ -0,0 +1,118 @@
+package net.projectsync.entityrelationship.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.persistence.EntityManager;
+import org.hibernate.Cache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.projectsync.entityrelationship.config.AppProperties;
+import net.projectsync.entityrelationship.dto.ProjectMergeResultDTO;
+import net.projectsync.entityrelationship.dto.ProjectSummaryDTO;
+import net.projectsync.entityrelationship.model.Project;
+import net.projectsync.entityrelationship.model.Student;
+import net.projectsync.entityrelationship.repository.ProjectRepository;
+import net.projectsync.entityrelationship.repository.ProjectStudentCountRow;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ProjectService {
+
+    private final ProjectRepository projectRepository;
+    private final AppProperties appProperties;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StudentChangeLog changeLog;
+
+    // =====================================================
+    // READ (reporting: counts only, students are never loaded)
+    // =====================================================
+
+    // Keyset page: projects with id > after, ordered by id
+    // Next page cursor = id of the last element returned
+    public List<ProjectSummaryDTO> getPage(Long after, Integer limit) {
+        return toDTOs(projectRepository.findPageWithStudentCount(after == null ? 0L : after, appProperties.getPaging().resolveLimit(limit)));
+    }
+
+    public List<ProjectSummaryDTO> getTop(Integer n) {
+        return toDTOs(projectRepository.findTopByStudentCount(appProperties.getPaging().resolveLimit(n)));
+    }
+
+    // =====================================================
+    // MERGE DUPLICATES (one-off job, profile merge-projects, see ProjectMergeRunner)
+    // =====================================================
+    // Projects created before the normalized_name column may share a name ("Alpha", "alpha ").
+    // Each group of equal normalized names is merged into its oldest project (lowest id):
+    // - students_projects rows of the duplicates are copied to the survivor (no duplicate link), then deleted
+    // - the duplicates are deleted, then normalized_name is filled on the survivors
+    //   (after the deletes: a duplicate may already hold that name in uk_project_normalized_name)
+    // ONE transaction, set-based statements per group, no Student is loaded.
+    // Students keep their version: one change feed row (UPDATED, projects) per affected student.
+    // StudentChangedEvent (after commit) only reaches listeners of the JVM running the merge, not the
+    // serving instances: they are stopped or restarted around it (see ProjectMergeRunner)
+    // Idempotent: a second run finds nothing to merge
+    @Transactional
+    public ProjectMergeResultDTO mergeDuplicates() {
+
+        Map<String, List<Project>> byName = new LinkedHashMap<>();
+        for (Project p : projectRepository.findAll(Sort.by("id"))) {
+            String name = Project.normalize(p.getProjectName());
+            if (name != null) {
+                byName.computeIfAbsent(name, k -> new ArrayList<>()).add(p);
+            }
+        }
+
+        ProjectMergeResultDTO result = new ProjectMergeResultDTO();
+        Map<Long, Long> studentVersions = new LinkedHashMap<>();		// student id -> version
+
+        for (List<Project> group : byName.values()) {
+            if (group.size() == 1) continue;
+
+            Long survivor = group.get(0).getId();
+            List<Long> duplicates = group.subList(1, group.size()).stream().map(Project::getId).toList();
+
+            projectRepository.findStudentVersions(duplicates).forEach(v -> studentVersions.put(v.getId(), v.getVersion()));
+            result.setLinksMoved(result.getLinksMoved() + projectRepository.copyLinks(duplicates, survivor));
+            projectRepository.deleteLinks(duplicates);
+            result.setProjectsMerged(result.getProjectsMerged() + projectRepository.deleteByIds(duplicates));
+            result.setNames(result.getNames() + 1);
+        }
+
+        for (List<Project> group : byName.values()) {
+            Project survivor = group.get(0);
+            if (!Objects.equals(survivor.getNormalizedName(), Project.normalize(survivor.getProjectName()))) {
+                survivor.setProjectName(survivor.getProjectName());		// recomputes normalizedName, UPDATE at commit
+                result.setProjectsNormalized(result.getProjectsNormalized() + 1);
+            }
+        }
+
+        if (result.getProjectsMerged() > 0) {
+            // links were rewritten in SQL: cached Student.projects collections are dropped
+            entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class)
+                    .evictCollectionData(Student.class.getName() + ".projects");
+            studentVersions.forEach(changeLog::projectsChanged);
+            eventPublisher.publishEvent(new StudentChangedEvent(StudentChangedEvent.Type.UPDATED, studentVersions.keySet()));
+        }
+        result.setStudentsAffected(studentVersions.size());
+
+        log.info("Project merge: {} names, {} projects merged, {} links moved, {} students, {} normalized",
+                result.getNames(), result.getProjectsMerged(), result.getLinksMoved(),
+                result.getStudentsAffected(), result.getProjectsNormalized());
+        return result;
+    }
+
+    private static List<ProjectSummaryDTO> toDTOs(List<ProjectStudentCountRow> rows) {
+        return rows.stream()
+                .map(r -> new ProjectSummaryDTO(r.getId(), r.getVersion(), r.getProjectName(), r.getStudentCount()))
+                .toList();
+    }
+}
@@ -0,0 +1,248 @@
+package net.projectsync.entityrelationship.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.hibernate.Cache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.projectsync.entityrelationship.config.AppProperties;
+import net.projectsync.entityrelationship.dto.BulkDeleteResultDTO;
+import net.projectsync.entityrelationship.dto.BulkResultDTO;
+import net.projectsync.entityrelationship.dto.ProjectDTO;
+import net.projectsync.entityrelationship.dto.StudentCreateDTO;
+import net.projectsync.entityrelationship.mapper.StudentMapper;
+import net.projectsync.entityrelationship.model.Project;
+import net.projectsync.entityrelationship.model.Student;
+import net.projectsync.entityrelationship.repository.AddressRepository;
+import net.projectsync.entityrelationship.repository.PhoneRepository;
+import net.projectsync.entityrelationship.repository.ProjectRepository;
+import net.projectsync.entityrelationship.repository.StudentRepository;
+
+/*
+ * Bulk creation (nightly feeds) and bulk deletion (cleanup jobs) of students
+ *
+ * createAll:
+ * - Rows are consumed lazily from the iterator, one chunk at a time
+ * - One transaction per chunk: a failing chunk does not roll back the previous ones
+ * - flush() + clear() every app.bulk.flush-interval rows:
+ *     -> JDBC batches of that size are sent (ids come from pooled sequences)
+ *     -> the persistence context never holds more than one batch of entities
+ * - Referenced project ids are checked with one IN (...) query per chunk
+ * - app.addresses.shared: identical addresses of the feed resolve to one row (AddressResolver)
+ *
+ * deleteAll / deleteByProject:
+ * - ONE transaction, set-based DML per slice of app.read.in-clause-size ids:
+ *     phone -> student (+ its students_projects rows) -> orphaned address
+ * - No entity is loaded: cascades / orphanRemoval of the mapping are replaced by explicit statements
+ *
+ * Not @Transactional on purpose: transactions are opened by TransactionTemplate
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StudentBulkService {
+
+    private final EntityManager entityManager;
+    private final ProjectRepository projectRepository;
+    private final StudentRepository studentRepository;
+    private final PhoneRepository phoneRepository;
+    private final AddressRepository addressRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StudentChangeLog changeLog;
+    private final AddressResolver addressResolver;
+    private final ProjectResolver projectResolver;
+    private final AppProperties appProperties;
+
+    public List<BulkResultDTO> createAll(Iterator<StudentCreateDTO> rows) {
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int chunkSize = appProperties.getBulk().getChunkSize();
+
+        List<BulkResultDTO> results = new ArrayList<>();
+        List<StudentCreateDTO> chunk = new ArrayList<>(chunkSize);
+
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == chunkSize) {
+                results.addAll(createChunk(tx, chunk, results.size()));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(createChunk(tx, chunk, results.size()));
+        }
+        return results;
+    }
+
+    private List<BulkResultDTO> createChunk(TransactionTemplate tx, List<StudentCreateDTO> chunk, int firstIndex) {
+        try {
+            return tx.execute(status -> persistChunk(chunk, firstIndex));
+        } catch (RuntimeException e) {
+            // chunk rolled back -> every row of the chunk is reported as failed
+            log.warn("Bulk chunk starting at row {} rolled back: {}", firstIndex, e.getMessage());
+            List<BulkResultDTO> failed = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                failed.add(failed(firstIndex + i, "Chunk rolled back: " + e.getMessage()));
+            }
+            return failed;
+        }
+    }
+
+    private List<BulkResultDTO> persistChunk(List<StudentCreateDTO> chunk, int firstIndex) {
+
+        int flushInterval = appProperties.getBulk().getFlushInterval();
+        Set<Long> existingProjectIds = findExistingProjectIds(chunk);
+
+        List<BulkResultDTO> results = new ArrayList<>(chunk.size());
+        int pending = 0;
+
+        for (int i = 0; i < chunk.size(); i++) {
+            StudentCreateDTO dto = chunk.get(i);
+
+            Long missing = findMissingProject(dto, existingProjectIds);
+            if (missing != null) {
+                results.add(failed(firstIndex + i, "Project not found: " + missing));
+                continue;
+            }
+
+            Student s = StudentMapper.toNewEntity(dto);
+            if (s.getAddress() != null) {
+                s.setAddress(addressResolver.resolve(s.getAddress()));	// canonical row when app.addresses.shared
+            }
+            if (dto.getProjects() != null) {
+                s.setProjects(dto.getProjects().stream()
+                        .map(this::projectForCreate)
+                        .collect(Collectors.toCollection(LinkedHashSet::new)));
+            }
+            entityManager.persist(s);						// id is assigned here (sequence), INSERT is batched
+            changeLog.created(s.getId(), s.getVersion());	// outbox row, batched with the student INSERTs
+            results.add(created(firstIndex + i, s.getId()));
+
+            if (++pending % flushInterval == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> createdIds = results.stream()
+                .filter(r -> r.getStatus() == BulkResultDTO.Status.CREATED)
+                .map(BulkResultDTO::getId)
+                .toList();
+        if (!createdIds.isEmpty()) {
+            eventPublisher.publishEvent(new StudentChangedEvent(StudentChangedEvent.Type.CREATED, createdIds));	// delivered if the chunk commits
+        }
+        return results;
+    }
+
+    // One query for all project ids referenced by the chunk
+    private Set<Long> findExistingProjectIds(List<StudentCreateDTO> chunk) {
+
+        Set<Long> referenced = chunk.stream()
+                .filter(dto -> dto.getProjects() != null)
+                .flatMap(dto -> dto.getProjects().stream())
+                .map(ProjectDTO::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        if (referenced.isEmpty()) {
+            return referenced;
+        }
+        return new HashSet<>(projectRepository.findExistingIds(referenced));
+    }
+
+    private Long findMissingProject(StudentCreateDTO dto, Set<Long> existingProjectIds) {
+        if (dto.getProjects() == null) return null;
+        return dto.getProjects().stream()
+                .map(ProjectDTO::getId)
+                .filter(id -> id != null && !existingProjectIds.contains(id))
+                .findFirst()
+                .orElse(null);
+    }
+
+    // For create: project version is ignored (same as StudentService.createStudent)
+    // getReference: existence already verified, no SELECT and survives clear() between batches
+    // No id: reused by name, the name -> id cache makes a name repeated across the feed cost one lookup
+    private Project projectForCreate(ProjectDTO dto) {
+        if (dto.getId() != null) {
+            return entityManager.getReference(Project.class, dto.getId());
+        }
+        if (dto.getProjectName() == null) {
+            return new Project();
+        }
+        return projectResolver.findOrCreate(dto.getProjectName());
+    }
+
+    // =====================================================
+    // BULK DELETE
+    // =====================================================
+    public BulkDeleteResultDTO deleteByProject(String projectName) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        return tx.execute(status -> deleteInTransaction(studentRepository.findIdsByProjectName(Project.normalize(projectName))));
+    }
+
+    public BulkDeleteResultDTO deleteAll(Collection<Long> ids) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        return tx.execute(status -> deleteInTransaction(new ArrayList<>(new LinkedHashSet<>(ids))));
+    }
+
+    private BulkDeleteResultDTO deleteInTransaction(List<Long> ids) {
+
+        BulkDeleteResultDTO result = new BulkDeleteResultDTO();
+        int sliceSize = appProperties.getRead().getInClauseSize();
+
+        for (int from = 0; from < ids.size(); from += sliceSize) {
+            List<Long> slice = ids.subList(from, Math.min(from + sliceSize, ids.size()));
+
+            List<Long> addressIds = studentRepository.findAddressIds(slice);		// before the students are gone
+            studentRepository.findExistingIds(slice).forEach(changeLog::deleted);	// outbox rows for the ids that really exist
+
+            result.setPhones(result.getPhones() + phoneRepository.deleteByStudentIds(slice));
+            result.setStudents(result.getStudents() + studentRepository.deleteByIds(slice));
+            if (!addressIds.isEmpty()) {
+                result.setAddresses(result.getAddresses() + addressRepository.deleteOrphans(addressIds));
+            }
+        }
+
+        if (result.getStudents() > 0) {
+            // Student.projects is cached in the "student-projects" region, entries of deleted students are dropped
+            entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class)
+                    .evictCollectionData(Student.class.getName() + ".projects");
+            eventPublisher.publishEvent(new StudentChangedEvent(StudentChangedEvent.Type.DELETED, ids));	// requested ids, missing ones are no-ops
+        }
+        log.info("Bulk delete: {} students, {} phones, {} addresses",
+                result.getStudents(), result.getPhones(), result.getAddresses());
+        return result;
+    }
+
+    private static BulkResultDTO created(int index, Long id) {
+        BulkResultDTO r = new BulkResultDTO();
+        r.setIndex(index);
+        r.setId(id);
+        r.setStatus(BulkResultDTO.Status.CREATED);
+        return r;
+    }
+
+    private static BulkResultDTO failed(int index, String error) {
+        BulkResultDTO r = new BulkResultDTO();
+        r.setIndex(index);
+        r.setStatus(BulkResultDTO.Status.FAILED);
+        r.setError(error);
+        return r;
+    }
+}
@@ -0,0 +1,144 @@
+package net.projectsync.entityrelationship.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import javax.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import lombok.RequiredArgsConstructor;
+import net.projectsync.entityrelationship.config.AppProperties;
+import net.projectsync.entityrelationship.dto.AddressDTO;
+import net.projectsync.entityrelationship.dto.PhoneDTO;
+import net.projectsync.entityrelationship.dto.ProjectDTO;
+import net.projectsync.entityrelationship.dto.StudentChangeDTO;
+import net.projectsync.entityrelationship.dto.StudentChangesDTO;
+import net.projectsync.entityrelationship.dto.StudentDTO;
+import net.projectsync.entityrelationship.model.StudentChange;
+import net.projectsync.entityrelationship.repository.StudentChangeRepository;
+
+/*
+ * Transactional outbox of student mutations (table student_change)
+ *
+ * Write side (created / updated / projectsChanged / deleted):
+ * - Propagation.MANDATORY: always part of the mutation's own transaction
+ * - Called last, after the flush: entityVersion is the version being committed
+ *   and the row is inserted right before the commit
+ *
+ * Read side (read):
+ * - Batches of app.changes.batch-size rows in feedSeq order, from a cursor (?since)
+ * - feedSeq is assigned after commit by StudentChangeRelay, in commit order and without gaps:
+ *   a row that is not numbered yet is invisible, and it can only get a number above every
+ *   cursor handed out so far. A reader never moves past a row that can still appear
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class StudentChangeLog {
+
+    private static final String STUDENT = "Student";
+
+    private final EntityManager entityManager;
+    private final StudentChangeRepository studentChangeRepository;
+    private final AppProperties appProperties;
+
+    // =====================================================
+    // WRITE (inside the mutation's transaction)
+    // =====================================================
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void created(Long studentId, Long version) {
+        append(studentId, version, StudentChange.Type.CREATED, null);
+    }
+
+    // Nothing is recorded when nothing changed (no version moved)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void updated(StudentDTO before, StudentDTO after) {
+        List<String> fields = changedFields(before, after);
+        if (!fields.isEmpty()) {
+            append(after.getId(), after.getVersion(), StudentChange.Type.UPDATED, String.join(",", fields));
+        }
+    }
+
+    // Links rewritten in SQL (project merge): the student's version did not move
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void projectsChanged(Long studentId, Long version) {
+        append(studentId, version, StudentChange.Type.UPDATED, "projects");
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleted(Long studentId) {
+        append(studentId, null, StudentChange.Type.DELETED, null);
+    }
+
+    private void append(Long studentId, Long version, StudentChange.Type type, String changedFields) {
+        StudentChange change = new StudentChange();
+        change.setEntityType(STUDENT);
+        change.setEntityId(studentId);
+        change.setEntityVersion(version);
+        change.setChangeType(type);
+        change.setChangedFields(changedFields);
+        change.setCreatedAt(Instant.now());
+        entityManager.persist(change);			// batched with the other INSERTs of the flush
+    }
+
+    // Top level fields whose value or version differs. Both DTOs carry versions,
+    // so nested changes are detected without comparing every column:
+    //   address -> id / version, phones / projects -> (id, version) per element
+    static List<String> changedFields(StudentDTO before, StudentDTO after) {
+
+        List<String> fields = new ArrayList<>();
+        if (!Objects.equals(before.getFirstName(), after.getFirstName())) fields.add("firstName");
+        if (!Objects.equals(before.getLastName(), after.getLastName())) fields.add("lastName");
+        if (!Objects.equals(before.getEmail(), after.getEmail())) fields.add("email");
+        if (!Objects.equals(addressKey(before.getAddress()), addressKey(after.getAddress()))) fields.add("address");
+        if (!versionKeys(before.getPhones(), PhoneDTO::getId, PhoneDTO::getVersion)
+                .equals(versionKeys(after.getPhones(), PhoneDTO::getId, PhoneDTO::getVersion))) fields.add("phones");
+        if (!versionKeys(before.getProjects(), ProjectDTO::getId, ProjectDTO::getVersion)
+                .equals(versionKeys(after.getProjects(), ProjectDTO::getId, ProjectDTO::getVersion))) fields.add("projects");
+        return fields;
+    }
+
+    private static List<Long> addressKey(AddressDTO a) {
+        return a == null ? null : Arrays.asList(a.getId(), a.getVersion());
+    }
+
+    private static <T> List<List<Long>> versionKeys(List<T> items, Function<T, Long> id, Function<T, Long> version) {
+        if (items == null) {
+            return List.of();
+        }
+        return items.stream().map(i -> Arrays.asList(id.apply(i), version.apply(i))).toList();
+    }
+
+    // =====================================================
+    // READ (GET /api/v1/students/changes)
+    // =====================================================
+    public StudentChangesDTO read(Long since, Integer limit) {
+
+        AppProperties.Changes config = appProperties.getChanges();
+        long after = since == null ? 0L : since;
+        int size = limit == null || limit <= 0 ? config.getBatchSize() : Math.min(limit, config.getBatchSize());
+
+        List<StudentChange> rows = studentChangeRepository.findBatch(after, PageRequest.of(0, size));
+
+        List<StudentChangeDTO> changes = rows.stream().map(StudentChangeLog::toDTO).toList();
+        long next = rows.isEmpty() ? after : rows.get(rows.size() - 1).getFeedSeq();
+        return new StudentChangesDTO(changes, next);
+    }
+
+    private static StudentChangeDTO toDTO(StudentChange c) {
+        StudentChangeDTO dto = new StudentChangeDTO();
+        dto.setSeq(c.getFeedSeq());			// feed position, not the row id
+        dto.setEntityType(c.getEntityType());
+        dto.setEntityId(c.getEntityId());
+        dto.setVersion(c.getEntityVersion());
+        dto.setChangeType(c.getChangeType().name());
+        dto.setChangedFields(c.getChangedFields() == null ? null : List.of(c.getChangedFields().split(",")));
+        dto.setCreatedAt(c.getCreatedAt());
+        return dto;
+    }
+}
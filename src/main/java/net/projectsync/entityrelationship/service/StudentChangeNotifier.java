@@ -0,0 +1,34 @@
+package net.projectsync.entityrelationship.service;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/*
+ * Wakes up long-polling readers of the change feed
+ *
+ * - A waiter is a CompletableFuture: no thread is parked while a poll waits
+ * - Completed when StudentChangeRelay has numbered new outbox rows (they are then visible
+ *   to StudentChangeLog.read), or at the poll timeout
+ */
+@Component
+public class StudentChangeNotifier {
+
+    private final Set<CompletableFuture<Void>> waiters = ConcurrentHashMap.newKeySet();
+
+    // Register BEFORE reading: rows published during the read still complete it
+    public CompletableFuture<Void> nextPublished(Duration timeout) {
+        CompletableFuture<Void> signal = new CompletableFuture<>();
+        waiters.add(signal);
+        signal.whenComplete((v, e) -> waiters.remove(signal));
+        return signal.completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Relay thread: completes every waiter, each one re-reads on the JDBC executor (see StudentController)
+    public void published() {
+        waiters.forEach(w -> w.complete(null));
+    }
+}
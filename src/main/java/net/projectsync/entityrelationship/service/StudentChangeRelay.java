@@ -0,0 +1,162 @@
+package net.projectsync.entityrelationship.service;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import lombok.extern.slf4j.Slf4j;
+import net.projectsync.entityrelationship.config.AppProperties;
+import net.projectsync.entityrelationship.model.StudentChange;
+import net.projectsync.entityrelationship.model.StudentChangeHead;
+import net.projectsync.entityrelationship.repository.StudentChangeRepository;
+
+/*
+ * Single writer of the change feed order (student_change.feed_seq)
+ *
+ * Outbox rows get their id from a sequence while the mutation runs, long before it commits
+ * (bulk chunks, other nodes holding other sequence blocks). Ordering the feed by that id lets a
+ * reader move past a row that commits later, and lose it. Instead:
+ *
+ * - One run = one transaction: lock the head row (SELECT ... FOR UPDATE, one writer across
+ *   all nodes), number the committed rows without feedSeq from lastFeedSeq + 1 (oldest id first),
+ *   move the head, commit
+ * - A row is numbered only once it is committed (visible), and every later run starts above
+ *   the previous one: feedSeq follows the order rows became visible, with no gaps
+ * - Runs on one thread ("change-relay-"): after each local commit (StudentChangedEvent)
+ *   and every app.changes.relay-interval for rows committed by other nodes
+ * - Readers (StudentChangeLog.read) only see numbered rows, long polls are woken once
+ *   the head moved (StudentChangeNotifier)
+ * - Transactions are not read-only: the head and the rows are read from the primary
+ */
+@Slf4j
+@Component
+public class StudentChangeRelay implements DisposableBean {
+
+    private final EntityManager entityManager;
+    private final StudentChangeRepository studentChangeRepository;
+    private final StudentChangeNotifier notifier;
+    private final AppProperties appProperties;
+    private final TransactionTemplate tx;
+    private final AtomicBoolean runScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("change-relay-"));
+    private long lastSeenHead = -1;		// worker thread only
+
+    public StudentChangeRelay(EntityManager entityManager, StudentChangeRepository studentChangeRepository,
+                              StudentChangeNotifier notifier, AppProperties appProperties,
+                              PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.studentChangeRepository = studentChangeRepository;
+        this.notifier = notifier;
+        this.appProperties = appProperties;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = appProperties.getChanges().getRelayInterval().toMillis();
+        worker.execute(this::createHead);
+        worker.scheduleWithFixedDelay(this::run, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (runScheduled.compareAndSet(false, true)) {
+            try {
+                worker.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                runScheduled.set(false);		// shutting down
+            }
+        }
+    }
+
+    // Rows committed while a batch is numbered are picked up by the next loop iteration
+    private void run() {
+
+        runScheduled.set(false);
+        int batchSize = appProperties.getChanges().getBatchSize();
+
+        try {
+            Long head;
+            int relayed;
+            do {
+                Relayed result = tx.execute(status -> relayBatch(batchSize));
+                head = result.head;
+                relayed = result.rows;
+            } while (relayed == batchSize);
+
+            if (head != null && head != lastSeenHead) {
+                lastSeenHead = head;			// moved here or on another node
+                notifier.published();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Change feed relay failed, retrying in {}: {}", appProperties.getChanges().getRelayInterval(), e.getMessage());
+        }
+    }
+
+    private Relayed relayBatch(int batchSize) {
+
+        StudentChangeHead head = entityManager.find(StudentChangeHead.class, StudentChangeHead.ID, LockModeType.PESSIMISTIC_WRITE);
+        if (head == null) {
+            return new Relayed(null, 0);		// created by createHead()
+        }
+
+        // read AFTER the lock: rows numbered by the previous holder are no longer null
+        List<StudentChange> rows = studentChangeRepository.findUnrelayed(PageRequest.of(0, batchSize));
+        long next = head.getLastFeedSeq();
+        for (StudentChange row : rows) {
+            row.setFeedSeq(++next);
+        }
+        head.setLastFeedSeq(next);			// dirty checking: batched UPDATEs at commit
+        return new Relayed(next, rows.size());
+    }
+
+    // First start on a database: the head begins above every seq, so a cursor taken from
+    // the seq based feed (before feed_seq existed) can only replay rows, never skip them
+    private void createHead() {
+        try {
+            tx.executeWithoutResult(status -> {
+                if (entityManager.find(StudentChangeHead.class, StudentChangeHead.ID) == null) {
+                    StudentChangeHead head = new StudentChangeHead();
+                    head.setId(StudentChangeHead.ID);
+                    head.setLastFeedSeq(studentChangeRepository.findMaxSeq());
+                    entityManager.persist(head);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Change feed head created by another node");
+        } catch (RuntimeException e) {
+            log.warn("Change feed head not created, retrying in {}: {}", appProperties.getChanges().getRelayInterval(), e.getMessage());
+            worker.schedule(this::createHead, appProperties.getChanges().getRelayInterval().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        worker.shutdownNow();
+    }
+
+    private static class Relayed {
+        private final Long head;
+        private final int rows;
+
+        private Relayed(Long head, int rows) {
+            this.head = head;
+            this.rows = rows;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package net.projectsync.entityrelationship.service;
+
+import java.util.Collection;
+import java.util.List;
+import lombok.Getter;
+
+/*
+ * Published by StudentService / StudentBulkService inside the write transaction
+ *
+ * - Carries ids only: listeners re-read what they need, after commit
+ *   (@TransactionalEventListener(phase = AFTER_COMMIT)), so a rolled back write is never seen
+ * - UPDATED also covers the projects renamed through the student (shared Project entity)
+ */
+@Getter
+public class StudentChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final List<Long> studentIds;
+
+    public StudentChangedEvent(Type type, Collection<Long> studentIds) {
+        this.type = type;
+        this.studentIds = List.copyOf(studentIds);
+    }
+
+    public static StudentChangedEvent of(Type type, Long studentId) {
+        return new StudentChangedEvent(type, List.of(studentId));
+    }
+}
@@ -0,0 +1,126 @@
+package net.projectsync.entityrelationship.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import net.projectsync.entityrelationship.config.AppProperties;
+import net.projectsync.entityrelationship.dto.StudentDTO;
+
+/*
+ * Bounded cache of fully assembled StudentDTOs (GET /{id}, GET /{id}/full)
+ *
+ * - Caffeine: W-TinyLFU admission / eviction, bounded by weight (DTO objects held), expire after write
+ * - Keyed by id and version: the caller passes the current ETag of the student (one narrow version
+ *   query, StudentService.getETag). The ETag covers the student, address, phones and projects versions,
+ *   so a cached DTO with another ETag is stale and reloaded. A hit costs that query only: no graph load, no mapping
+ * - The version check also catches writes this instance never heard of (other nodes, the merge-projects
+ *   runner): local invalidations only keep the cache small and the hit ratio honest, they are not needed for correctness
+ * - Misses call the loader (a read-only service method) inside a transaction that is NOT read-only:
+ *   the row comes from the primary, never from a lagging replica (see ReadReplicaRoutingDataSource).
+ *   While a replica lags, its ETag may not match the primary's DTO: the entry is reloaded until it catches up
+ * - Invalidated after commit:
+ *     StudentChangedEvent -> the students of the event
+ *     ProjectRenamedEvent -> every cached student linked to the project (scan of the cached entries)
+ * - Generation guard: a loader that read the database before an invalidation must not put its
+ *   (stale) result back. Invalidations bump a stamp first, loads re-check it after their put
+ * - Cached DTOs are shared between requests: they are only serialized, never modified
+ *
+ * Metrics: CaffeineCacheMetrics (cache=students.dto) + students.dto.cache.hit.ratio
+ */
+@Component
+public class StudentDTOCache {
+
+    private static final int STRIPES = 1024;		// power of two
+
+    private final boolean enabled;
+    private final Cache<Long, StudentDTO> cache;
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);	// per id stripe, bumped by student invalidations
+    private final AtomicLong renames = new AtomicLong();					// bumped by project renames (ids unknown)
+    private final TransactionTemplate primary;							// misses: read from the primary
+
+    public StudentDTOCache(AppProperties appProperties, MeterRegistry meterRegistry,
+                           PlatformTransactionManager transactionManager) {
+
+        AppProperties.StudentCache config = appProperties.getCache().getStudent();
+        this.enabled = config.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(config.getMaxWeight())
+                .weigher(StudentDTOCache::weigh)
+                .expireAfterWrite(config.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        this.primary = new TransactionTemplate(transactionManager);		// not read-only on purpose
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "students.dto");
+        Gauge.builder("students.dto.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Hit ratio of the StudentDTO cache since startup")
+                .register(meterRegistry);
+    }
+
+    // etag: current ETag of the student (StudentService.getETag), the version part of the key
+    public StudentDTO get(Long id, String etag, Function<Long, StudentDTO> loader) {
+
+        if (!enabled) {
+            return loader.apply(id);
+        }
+
+        StudentDTO cached = cache.getIfPresent(id);
+        if (cached != null) {
+            if (etag.equals(StudentETags.of(cached))) {
+                return cached;
+            }
+            cache.asMap().remove(id, cached);	// another version: reload
+        }
+
+        long stamp = stamp(id);
+        StudentDTO dto = primary.execute(status -> loader.apply(id));	// EntityNotFoundException for unknown ids: nothing is cached
+        cache.put(id, dto);
+        if (stamp(id) != stamp) {
+            cache.invalidate(id);				// invalidated while loading: dto may predate the write
+        }
+        return dto;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (event.getType() == StudentChangedEvent.Type.CREATED) {
+            return;								// nothing can be cached for an id that did not exist
+        }
+        for (Long id : event.getStudentIds()) {
+            stamps.incrementAndGet(stripe(id));
+            cache.invalidate(id);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProjectRenamed(ProjectRenamedEvent event) {
+        renames.incrementAndGet();
+        cache.asMap().values().removeIf(dto -> dto.getProjects() != null
+                && dto.getProjects().stream().anyMatch(p -> event.getProjectId().equals(p.getId())));
+    }
+
+    // Both counters only grow: the sum changes whenever one of them does
+    private long stamp(Long id) {
+        return stamps.get(stripe(id)) + renames.get();
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (STRIPES - 1);
+    }
+
+    private static int weigh(Long id, StudentDTO dto) {
+        return 1 + (dto.getAddress() != null ? 1 : 0)
+                + (dto.getPhones() != null ? dto.getPhones().size() : 0)
+                + (dto.getProjects() != null ? dto.getProjects().size() : 0);
+    }
+}
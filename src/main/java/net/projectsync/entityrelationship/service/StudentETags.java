@@ -0,0 +1,75 @@
+package net.projectsync.entityrelationship.service;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+import net.projectsync.entityrelationship.dto.PhoneDTO;
+import net.projectsync.entityrelationship.dto.ProjectDTO;
+import net.projectsync.entityrelationship.dto.StudentDTO;
+import net.projectsync.entityrelationship.repository.StudentVersionRow;
+
+// =====================================================
+// STRONG ETAG OF A STUDENT AGGREGATE
+// =====================================================
+// Built from the version tuple (see StudentVersionRow):
+//   student version, address id / version, count / id sum / version sum of phones and of projects
+// The same value comes from the narrow version query (conditional requests)
+// and from a loaded StudentDTO (200 responses), so both always agree
+public final class StudentETags {
+
+    private StudentETags() {}
+
+    public static String of(StudentVersionRow row) {
+        return format(row.getVersion(), row.getAddressId(), row.getAddressVersion(),
+                row.getPhoneCount(), row.getPhoneIdSum(), row.getPhoneVersionSum(),
+                row.getProjectCount(), row.getProjectIdSum(), row.getProjectVersionSum());
+    }
+
+    public static String of(StudentDTO dto) {
+
+        List<PhoneDTO> phones = dto.getPhones() != null ? dto.getPhones() : List.of();
+        List<ProjectDTO> projects = dto.getProjects() != null ? dto.getProjects() : List.of();
+
+        return format(dto.getVersion(),
+                dto.getAddress() != null ? dto.getAddress().getId() : null,
+                dto.getAddress() != null ? dto.getAddress().getVersion() : null,
+                (long) phones.size(), sum(phones, PhoneDTO::getId), sum(phones, PhoneDTO::getVersion),
+                (long) projects.size(), sum(projects, ProjectDTO::getId), sum(projects, ProjectDTO::getVersion));
+    }
+
+    // If-None-Match: weak comparison (W/ prefix ignored), If-Match: strong comparison
+    // header may be "*" or a comma separated list of entity tags
+    public static boolean matches(String header, String etag, boolean weakComparison) {
+
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                if (!weakComparison) continue;
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String format(Long... values) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append('-');
+            sb.append(values[i] != null ? values[i] : 0L);
+        }
+        return sb.append('"').toString();
+    }
+
+    private static <T> Long sum(List<T> elements, ToLongFunction<T> value) {
+        long sum = 0;
+        for (T e : elements) {
+            sum += value.applyAsLong(e);
+        }
+        return sum;
+    }
+}
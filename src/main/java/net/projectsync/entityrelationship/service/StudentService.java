@@ -1,75 +1,85 @@
 package net.projectsync.entityrelationship.service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.persistence.EntityNotFoundException;
 import javax.persistence.OptimisticLockException;
-import javax.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
+import net.projectsync.entityrelationship.config.AppProperties;
 import net.projectsync.entityrelationship.dto.AddressDTO;
+import net.projectsync.entityrelationship.dto.BulkPatchResultDTO;
 import net.projectsync.entityrelationship.dto.PhoneDTO;
 import net.projectsync.entityrelationship.dto.ProjectDTO;
 import net.projectsync.entityrelationship.dto.StudentCreateDTO;
 import net.projectsync.entityrelationship.dto.StudentDTO;
+import net.projectsync.entityrelationship.dto.StudentPatchItemDTO;
 import net.projectsync.entityrelationship.dto.StudentUpdateDTO;
+import net.projectsync.entityrelationship.mapper.StudentListView;
 import net.projectsync.entityrelationship.mapper.StudentMapper;
 import net.projectsync.entityrelationship.model.Address;
 import net.projectsync.entityrelationship.model.Phone;
 import net.projectsync.entityrelationship.model.Project;
 import net.projectsync.entityrelationship.model.Student;
+import net.projectsync.entityrelationship.repository.EntityVersion;
+import net.projectsync.entityrelationship.repository.PhoneRepository;
 import net.projectsync.entityrelationship.repository.ProjectRepository;
+import net.projectsync.entityrelationship.repository.StudentFullRow;
 import net.projectsync.entityrelationship.repository.StudentRepository;
+import net.projectsync.entityrelationship.repository.StudentRootVersion;
+import net.projectsync.entityrelationship.search.StudentSearchIndex;
 
 @Service
 @RequiredArgsConstructor
-@Transactional 						// Added to enable default Lazy loading as specified in entities
+@Transactional(readOnly = true)		// Added to enable default Lazy loading as specified in entities
+									// readOnly by default: no dirty-check snapshots, FlushMode.MANUAL, may use the replica
+									// write methods override it with @Transactional
 public class StudentService {
 
     private final StudentRepository studentRepository;
     private final ProjectRepository projectRepository;
+    private final PhoneRepository phoneRepository;
+    private final ProjectResolver projectResolver;
+    private final AppProperties appProperties;
+    private final ApplicationEventPublisher eventPublisher;		// StudentChangedEvent, handled after commit
+    private final StudentSearchIndex searchIndex;
+    private final StudentChangeLog changeLog;			// outbox rows, same transaction as the write
+    private final AddressResolver addressResolver;
 
     // =====================================================
     // CREATE
     // =====================================================
+    @Transactional
     public StudentDTO createStudent(StudentCreateDTO dto) {
 
         Student s = StudentMapper.toNewEntity(dto);
+        if (s.getAddress() != null) {
+            s.setAddress(addressResolver.resolve(s.getAddress()));		// canonical row when app.addresses.shared
+        }
 
         // Projects: may reuse existing or create new
         // ManyToMany
+        // For create: project version is ignored
         if (dto.getProjects() != null) {
-            s.setProjects(
-                    dto.getProjects().stream()
-                            .map(this::resolveProjectForCreate)
-                            .toList()
-            );
-        }
-        /* same as above 'if' block
-	    List<Project> projects = new ArrayList<>();
-	    for (ProjectDTO projectDTO : dto.getProjects()) {
-	        Project project = resolveProjectForCreate(projectDTO);
-	        projects.add(project);
-	    }
-        */
-
-        return StudentMapper.toDTO(studentRepository.save(s));
-    }
-
-    // For create: project version is ignored
-    private Project resolveProjectForCreate(ProjectDTO dto) {
-        if (dto.getId() != null) {
-            return projectRepository.findById(dto.getId())
-                    .orElseThrow(() -> new EntityNotFoundException(
-                            "Project not found: " + dto.getId()
-                    ));
-        }
-        Project p = new Project();
-        p.setProjectName(dto.getProjectName());
-        return p;
+            s.setProjects(new LinkedHashSet<>(projectResolver.resolve(dto.getProjects(), false)));
+        }
+
+        Student saved = studentRepository.save(s);
+        changeLog.created(saved.getId(), saved.getVersion());
+        eventPublisher.publishEvent(StudentChangedEvent.of(StudentChangedEvent.Type.CREATED, saved.getId()));
+        return StudentMapper.toDTO(saved);
     }
     
     // =====================================================
@@ -81,25 +91,98 @@ public class StudentService {
         return StudentMapper.toDTO(s);
     }
 
-    public List<StudentDTO> getAll() {
-        return studentRepository.findAll().stream()
+    // Conditional requests: ETag from one narrow version query, nothing is loaded or mapped
+    public String getETag(Long id) {
+        return studentRepository.findVersionRow(id)
+                .map(StudentETags::of)
+                .orElseThrow(() -> new EntityNotFoundException("Student not found: " + id));
+    }
+
+    public StudentListView getAll() {
+        return toDTOs(studentRepository.findAllWithAddress(), "all");
+    }
+
+    // Keyset page: students with id > after, ordered by id
+    // Next page cursor = id of the last element returned
+    public StudentListView getPage(Long after, Integer limit) {
+
+        List<Student> students = studentRepository.findPageAfter(
+                after == null ? 0L : after,
+                PageRequest.of(0, appProperties.getPaging().resolveLimit(limit)));
+
+        return toDTOs(students, "page");
+    }
+
+    // Ids come from the in-memory index (no LIKE scan), only the matching students are loaded by id
+    public StudentListView search(String query, Integer limit) {
+
+        long[] ids = searchIndex.search(query, appProperties.getPaging().resolveLimit(limit));
+        if (ids.length == 0) {
+            return StudentListView.empty();
+        }
+        return toDTOs(studentRepository.findAllWithAddressByIds(Arrays.stream(ids).boxed().toList()), "search");
+    }
+
+    // List paths: students are loaded with their address (JOIN FETCH),
+    // phones and projects are initialized here before mapping
+    // endpoint listed in app.read.direct-json: no mapping, the entities are written by StudentJsonWriter
+    private StudentListView toDTOs(List<Student> students, String endpoint) {
+
+        fetchAssociations(students);
+
+        if (appProperties.getRead().getDirectJson().contains(endpoint)) {
+            return StudentListView.ofEntities(students);
+        }
+
+        return StudentListView.ofDTOs(students.stream()
                 .map(StudentMapper::toDTO)
-                .toList();
+                .toList());
+    }
+
+    // Initialize phones and projects of already loaded students
+    // with one query per collection per slice of ids instead of one query per student
+    // (slices keep the IN list below app.read.in-clause-size bind parameters)
+    private void fetchAssociations(List<Student> students) {
+
+        if (students.isEmpty()) return;
+
+        List<Long> ids = students.stream().map(Student::getId).toList();
+        int sliceSize = appProperties.getRead().getInClauseSize();
+
+        for (int from = 0; from < ids.size(); from += sliceSize) {
+            List<Long> slice = ids.subList(from, Math.min(from + sliceSize, ids.size()));
+            studentRepository.fetchPhonesIn(slice);
+            studentRepository.fetchProjectsIn(slice);
+        }
     }
     
     // =====================================================
     // PUT
     // =====================================================
+    @Transactional
     public StudentDTO update(Long id, StudentUpdateDTO dto) {
-    	
+        return update(id, dto, null);
+    }
+
+    // ifMatch: If-Match header (null -> no precondition), compared with the ETag of the aggregate
+    // loaded by this transaction, so the precondition and the write see the same state
+    @Transactional
+    public StudentDTO update(Long id, StudentUpdateDTO dto, String ifMatch) {
+
+        precheckVersions(id, dto, false);			// PUT does not check phone versions
+
         Student s = studentRepository.findById(id)
         		.orElseThrow(() -> new EntityNotFoundException("Student not found: " + id));
 
+        StudentDTO before = StudentMapper.toDTO(s);		// change feed: compared with the result
+        checkIfMatch(before, ifMatch);
+
         // optimistic lock at root
         if (dto.getVersion() == null) {
             throw new OptimisticLockException("Student version is required for PUT");
         }
-        checkVersion("Student", s.getId(), s.getVersion(), dto.getVersion());
+        OptimisticLocks.checkVersion("Student", s.getId(), s.getVersion(), dto.getVersion());
+        Address previousAddress = s.getAddress();
 
         // full required fields
         // Optional: update only non-null field
@@ -120,7 +203,13 @@ public class StudentService {
         // update() is wrapped in a transaction (@Transactional added at service level or method level)
         // So, Hibernate tracks these changes using dirty checking. Hibernate automatically runs UPDATE, INSERT, DELETE. No need to explicitly specify save()
         // return StudentMapper.toDTO(s);						// automatic persistence / dirty checking
-        return StudentMapper.toDTO(studentRepository.save(s));	// added explicit save to avoid accidental failures
+        // flush: versions are incremented now, so the outbox row and the response carry the committed ones
+        Student saved = studentRepository.saveAndFlush(s);	// added explicit save to avoid accidental failures
+        releaseAddress(previousAddress, saved);
+        StudentDTO after = StudentMapper.toDTO(saved);
+        changeLog.updated(before, after);
+        eventPublisher.publishEvent(StudentChangedEvent.of(StudentChangedEvent.Type.UPDATED, id));
+        return after;
     }
     
     private void applyPutOnStudentBasic(Student s, StudentUpdateDTO dto) {
@@ -136,44 +225,43 @@ public class StudentService {
             return;
         }
 
-        if (s.getAddress() == null) {
+        Address a = s.getAddress();
+        if (a == null) {
             // new address
-            Address a = new Address();
-            a.setHouseName(dto.getHouseName());
-            a.setStreetNo(dto.getStreetNo());
-            a.setCity(dto.getCity());
-            a.setState(dto.getState());
-            a.setCountry(dto.getCountry());
-            s.setAddress(a);
-            return;
-        }
-
-        // existing address, optimistic lock if version present
-        if (dto.getVersion() != null) {
-            checkVersion("Address", s.getAddress().getId(), s.getAddress().getVersion(), dto.getVersion());
+            a = new Address();
+        } else {
+            // existing address, optimistic lock if version present
+            if (dto.getVersion() != null) {
+                OptimisticLocks.checkVersion("Address", a.getId(), a.getVersion(), dto.getVersion());
+            }
+            if (addressResolver.copyOnWrite(a)) {
+                a = AddressResolver.copyOf(a);			// shared row: never modified in place
+            }
         }
 
-        s.getAddress().setHouseName(dto.getHouseName());
-        s.getAddress().setStreetNo(dto.getStreetNo());
-        s.getAddress().setCity(dto.getCity());
-        s.getAddress().setState(dto.getState());
-        s.getAddress().setCountry(dto.getCountry());
+        a.setHouseName(dto.getHouseName());
+        a.setStreetNo(dto.getStreetNo());
+        a.setCity(dto.getCity());
+        a.setState(dto.getState());
+        a.setCountry(dto.getCountry());
+        s.setAddress(addressResolver.resolve(a));
     }
     
     private void applyPutOnPhones(Student s, List<PhoneDTO> dtos) {
 
         if (dtos == null) return;
 
+        Map<Long, Phone> existingById = phonesById(s);
+
         for (PhoneDTO dto : dtos) {
 
             // Case 1: UPDATE existing phone
             if (dto.getId() != null) {
 
-                Phone existing = s.getPhones().stream()
-                        .filter(p -> p.getId().equals(dto.getId()))
-                        .findFirst()
-                        .orElseThrow(() ->
-                                new RuntimeException("Phone not found: " + dto.getId()));
+                Phone existing = existingById.get(dto.getId());
+                if (existing == null) {
+                    throw new EntityNotFoundException("Phone not found: " + dto.getId());
+                }
 
                 existing.setPhoneModel(dto.getPhoneModel());
                 existing.setPhoneNumber(dto.getPhoneNumber());
@@ -190,49 +278,123 @@ public class StudentService {
         }
     }
     
+    // PUT: the request is the complete list of projects.
+    // Diff against the current links instead of clear() + addAll(): Student.projects is a Set,
+    // so Hibernate only DELETEs the links that were dropped and INSERTs the new ones
     private void applyPutOnProjects(Student s, List<ProjectDTO> dtos) {
 
-        s.getProjects().clear();
+        if (dtos == null) {
+            s.getProjects().clear();
+            return;
+        }
 
-        if (dtos == null) return;
+        // existing ones loaded with one query and version-checked,
+        // project does not exist -> create new project
+        List<Project> wanted = projectResolver.resolve(dtos, true);
 
-        List<Project> newProjects = new ArrayList<>();
-        for (ProjectDTO dto : dtos) {
+        for (int i = 0; i < dtos.size(); i++) {
         	// update existing project
-            if (dto.getId() != null) {
-                Project p = projectRepository.findById(dto.getId())
-                        .orElseThrow(() -> new EntityNotFoundException("Project not found: " + dto.getId()));
-
-                if (dto.getVersion() != null) {
-                    checkVersion("Project", p.getId(), p.getVersion(), dto.getVersion());
-                }
-
-                p.setProjectName(dto.getProjectName()); // shared entity will be updated
-                newProjects.add(p);
-            } 
-            // project does not exist -> create new project
-            else {
-                Project p = new Project();
-                p.setProjectName(dto.getProjectName());
-                newProjects.add(p);
+            if (dtos.get(i).getId() != null) {
+                rename(wanted.get(i), dtos.get(i).getProjectName()); // shared entity will be updated
             }
         }
 
-        s.getProjects().addAll(newProjects);
+        // resolved projects are the managed instances of the persistence context -> identity comparison is enough
+        s.getProjects().retainAll(new HashSet<>(wanted));
+        s.getProjects().addAll(wanted);
+    }
+
+    // Shared Project: the new name shows up for every linked student, not only this one
+    private void rename(Project p, String projectName) {
+        if (!Objects.equals(p.getProjectName(), projectName)) {
+            projectResolver.checkNameAvailable(p, projectName);		// uk_project_normalized_name, with a readable error
+            p.setProjectName(projectName);
+            eventPublisher.publishEvent(new ProjectRenamedEvent(p.getId()));
+        }
     }
 
     // =====================================================
     // PATCH
     // =====================================================
+    @Transactional
     public StudentDTO patch(Long id, StudentUpdateDTO dto) {
+        return patch(id, dto, null);
+    }
+
+    @Transactional
+    public StudentDTO patch(Long id, StudentUpdateDTO dto, String ifMatch) {
+
+        precheckVersions(id, dto, true);
 
         Student s = studentRepository.findById(id)
         		.orElseThrow(() -> new EntityNotFoundException("Student not found: " + id));
 
+        StudentDTO before = StudentMapper.toDTO(s);		// change feed: compared with the result
+        checkIfMatch(before, ifMatch);
+
         // optional optimistic locking for root
         if (dto.getVersion() != null) {
-            checkVersion("Student", s.getId(), s.getVersion(), dto.getVersion());
+            OptimisticLocks.checkVersion("Student", s.getId(), s.getVersion(), dto.getVersion());
+        }
+
+        Address previousAddress = s.getAddress();
+
+        applyPatch(s, dto);
+
+        // return StudentMapper.toDTO(s);						// automatic persistence / dirty checking
+        // flush: versions are incremented now, so the outbox row and the response carry the committed ones
+        Student saved = studentRepository.saveAndFlush(s);	// added explicit save to avoid accidental failures
+        releaseAddress(previousAddress, saved);
+        StudentDTO after = StudentMapper.toDTO(saved);
+        changeLog.updated(before, after);
+        eventPublisher.publishEvent(StudentChangedEvent.of(StudentChangedEvent.Type.UPDATED, id));
+        return after;
+    }
+
+    // ETag of the loaded aggregate, same value as getETag() / the 200 response for this state
+    private void checkIfMatch(StudentDTO current, String ifMatch) {
+        if (ifMatch != null) {
+            OptimisticLocks.checkETag("Student", current.getId(), StudentETags.of(current), ifMatch);
+        }
+    }
+
+    // Versions sent by the client compared with narrow queries BEFORE the aggregate is loaded:
+    // a stale request fails after 1-2 small SELECTs instead of a full load + mapping.
+    // Same checks as the load path (which still runs them), unknown ids are left to it.
+    // Project versions are checked by ProjectResolver before anything is applied.
+    private void precheckVersions(Long id, StudentUpdateDTO dto, boolean checkPhones) {
+
+        if (!appProperties.getWrite().isPrecheck()) return;
+
+        AddressDTO address = dto.getAddress();
+        boolean addressVersion = address != null && address.getVersion() != null;
+
+        if (dto.getVersion() != null || addressVersion) {
+            StudentRootVersion root = studentRepository.findRootVersion(id).orElse(null);
+            if (root == null) return;
+
+            if (dto.getVersion() != null)
+                OptimisticLocks.checkVersion("Student", id, root.getVersion(), dto.getVersion());
+            if (addressVersion && root.getAddressId() != null)
+                OptimisticLocks.checkVersion("Address", root.getAddressId(), root.getAddressVersion(), address.getVersion());
+        }
+
+        if (checkPhones && dto.getPhones() != null) {
+            Map<Long, Long> incoming = new HashMap<>();
+            for (PhoneDTO phone : dto.getPhones()) {
+                if (phone.getId() != null && phone.getVersion() != null) {
+                    incoming.put(phone.getId(), phone.getVersion());
+                }
+            }
+            if (!incoming.isEmpty()) {
+                for (EntityVersion current : phoneRepository.findVersions(id, incoming.keySet())) {
+                    OptimisticLocks.checkVersion("Phone", current.getId(), current.getVersion(), incoming.get(current.getId()));
+                }
+            }
         }
+    }
+
+    private void applyPatch(Student s, StudentUpdateDTO dto) {
 
         applyPatchOnStudentBasic(s, dto);
 
@@ -244,9 +406,6 @@ public class StudentService {
 
         if (dto.getProjects() != null)
             applyPatchOnProjects(s, dto.getProjects());
-
-        // return StudentMapper.toDTO(s);						// automatic persistence / dirty checking
-        return StudentMapper.toDTO(studentRepository.save(s));	// added explicit save to avoid accidental failures
     }
 
     private void applyPatchOnStudentBasic(Student s, StudentUpdateDTO dto) {
@@ -261,9 +420,13 @@ public class StudentService {
         if (a == null) {
             // if any field present, create new address
             a = new Address();
-            s.setAddress(a);
-        } else if (dto.getVersion() != null) {
-            checkVersion("Address", a.getId(), a.getVersion(), dto.getVersion());
+        } else {
+            if (dto.getVersion() != null) {
+                OptimisticLocks.checkVersion("Address", a.getId(), a.getVersion(), dto.getVersion());
+            }
+            if (addressResolver.copyOnWrite(a)) {
+                a = AddressResolver.copyOf(a);			// shared row: never modified in place
+            }
         }
 
         if (dto.getHouseName() != null) a.setHouseName(dto.getHouseName());
@@ -271,18 +434,22 @@ public class StudentService {
         if (dto.getCity() != null)      a.setCity(dto.getCity());
         if (dto.getState() != null)     a.setState(dto.getState());
         if (dto.getCountry() != null)   a.setCountry(dto.getCountry());
+        s.setAddress(addressResolver.resolve(a));
+    }
+
+    // After flush: the row the student moved away from (copy-on-write, PUT without address)
+    // is deleted once no student references it. Compared by id: a proxy and its entity are the same row
+    private void releaseAddress(Address previous, Student s) {
+        if (previous == null) return;
+        if (s.getAddress() == null || !Objects.equals(previous.getId(), s.getAddress().getId())) {
+            addressResolver.release(previous);
+        }
     }
 
     // PATCH: update existing, add new, keep unspecified
     private void applyPatchOnPhones(Student s, List<PhoneDTO> dtos) {
 
-        // build map of existing Phones by id
-        Map<Long, Phone> existingById = new HashMap<>();
-        for (Phone p : s.getPhones()) {
-            if (p.getId() != null) {
-                existingById.put(p.getId(), p);
-            }
-        }
+        Map<Long, Phone> existingById = phonesById(s);
 
         for (PhoneDTO dto : dtos) {
             if (dto.getId() != null) {
@@ -293,7 +460,7 @@ public class StudentService {
 
                 // optimistic lock if version present
                 if (dto.getVersion() != null) {
-                    checkVersion("Phone", existing.getId(), existing.getVersion(), dto.getVersion());
+                    OptimisticLocks.checkVersion("Phone", existing.getId(), existing.getVersion(), dto.getVersion());
                 }
 
                 if (dto.getPhoneModel() != null)
@@ -313,46 +480,210 @@ public class StudentService {
         // Note: we do NOT remove unspecified phones in PATCH
     }
 
+    // existing Phones by id: O(1) lookup per incoming PhoneDTO
+    private static Map<Long, Phone> phonesById(Student s) {
+        Map<Long, Phone> byId = new HashMap<>();
+        for (Phone p : s.getPhones()) {
+            if (p.getId() != null) {
+                byId.put(p.getId(), p);
+            }
+        }
+        return byId;
+    }
+
     // PATCH: update ones provided, keep others; if a project is absent, keep it
     private void applyPatchOnProjects(Student s, List<ProjectDTO> dtos) {
 
-        // Existing set as map by id
-        Map<Long, Project> existingById = new HashMap<>();
+        // Existing membership as a set of ids (O(1) lookup instead of List.contains)
+        Set<Long> memberIds = new HashSet<>();
         for (Project p : s.getProjects()) {
-            if (p.getId() != null) existingById.put(p.getId(), p);
+            if (p.getId() != null) memberIds.add(p.getId());
         }
 
-        for (ProjectDTO dto : dtos) {
-            if (dto.getId() != null) {
-                Project p = projectRepository.findById(dto.getId())
-                        .orElseThrow(() -> new EntityNotFoundException("Project not found: " + dto.getId()));
+        // existing ones loaded with one query and version-checked
+        List<Project> resolved = projectResolver.resolve(dtos, true);
 
-                if (dto.getVersion() != null) {
-                    checkVersion("Project", p.getId(), p.getVersion(), dto.getVersion());
-                }
+        for (int i = 0; i < dtos.size(); i++) {
+            ProjectDTO dto = dtos.get(i);
+            Project p = resolved.get(i);
 
+            if (dto.getId() != null) {
                 if (dto.getProjectName() != null)
-                    p.setProjectName(dto.getProjectName());
+                    rename(p, dto.getProjectName());
 
-                if (!s.getProjects().contains(p)) {
+                if (memberIds.add(p.getId())) {
                     s.getProjects().add(p);
                 }
 
             } else {
-                Project p = new Project();
-                p.setProjectName(dto.getProjectName());
                 s.getProjects().add(p);
             }
         }
     }
     
+    // =====================================================
+    // BULK PATCH
+    // =====================================================
+    // Same semantics as patch(), for many students in ONE transaction:
+    // - Students + address: 1 query, phones: 1 query, projects: 1 query (per slice of app.read.in-clause-size ids),
+    //   referenced projects: 1 query for the whole request
+    // - Every item is validated against the loaded aggregate BEFORE anything is applied:
+    //     stale version -> CONFLICT, unknown student -> NOT_FOUND, unknown phone / project or id listed twice -> FAILED
+    //   a rejected item leaves its student untouched, the other items are applied
+    // - One flush at the end: the UPDATEs go out as JDBC batches (hibernate.jdbc.batch_size, order_updates)
+    // - A conflict detected by the flush itself (concurrent commit) rolls back the whole request (409)
+    @Transactional
+    public List<BulkPatchResultDTO> patchAll(List<StudentPatchItemDTO> items) {
+
+        int max = appProperties.getBulk().getMaxPatchItems();
+        if (items.size() > max) {
+            throw new IllegalArgumentException("At most " + max + " items per request, got " + items.size());
+        }
+
+        Map<Long, Student> students = loadForPatch(items);
+        Map<Long, Project> projects = projectResolver.findExisting(items.stream()
+                .filter(item -> item.getProjects() != null)
+                .flatMap(item -> item.getProjects().stream())
+                .map(ProjectDTO::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        List<BulkPatchResultDTO> results = new ArrayList<>(items.size());
+        Map<Long, StudentDTO> before = new LinkedHashMap<>();		// change feed: applied items only
+        Map<Long, Address> previousAddresses = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            StudentPatchItemDTO item = items.get(i);
+            Student s = item.getId() == null ? null : students.get(item.getId());
+
+            if (item.getId() == null || !seen.add(item.getId())) {
+                results.add(patchResult(i, item.getId(), BulkPatchResultDTO.Status.FAILED,
+                        item.getId() == null ? "id is required" : "Student " + item.getId() + " is listed twice in this request"));
+                continue;
+            }
+            if (s == null) {
+                results.add(patchResult(i, item.getId(), BulkPatchResultDTO.Status.NOT_FOUND, "Student not found: " + item.getId()));
+                continue;
+            }
+            try {
+                validatePatch(s, item, projects);
+            } catch (OptimisticLockException e) {
+                results.add(patchResult(i, item.getId(), BulkPatchResultDTO.Status.CONFLICT, e.getMessage()));
+                continue;
+            } catch (EntityNotFoundException e) {
+                results.add(patchResult(i, item.getId(), BulkPatchResultDTO.Status.FAILED, e.getMessage()));
+                continue;
+            }
+
+            before.put(s.getId(), StudentMapper.toDTO(s));
+            previousAddresses.put(s.getId(), s.getAddress());
+            applyPatch(s, item);
+            results.add(patchResult(i, item.getId(), BulkPatchResultDTO.Status.UPDATED, null));
+        }
+
+        if (before.isEmpty()) {
+            return results;
+        }
+
+        studentRepository.flush();			// versions are incremented now
+        previousAddresses.forEach((id, previous) -> releaseAddress(previous, students.get(id)));
+
+        before.forEach((id, old) -> changeLog.updated(old, StudentMapper.toDTO(students.get(id))));
+        for (BulkPatchResultDTO r : results) {
+            if (r.getStatus() == BulkPatchResultDTO.Status.UPDATED) {
+                r.setVersion(students.get(r.getId()).getVersion());
+            }
+        }
+        eventPublisher.publishEvent(new StudentChangedEvent(StudentChangedEvent.Type.UPDATED, before.keySet()));
+        return results;
+    }
+
+    // Aggregates of every requested id, fully initialized (same queries as the list paths)
+    private Map<Long, Student> loadForPatch(List<StudentPatchItemDTO> items) {
+
+        List<Long> ids = items.stream()
+                .map(StudentPatchItemDTO::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        int sliceSize = appProperties.getRead().getInClauseSize();
+
+        List<Student> loaded = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += sliceSize) {
+            loaded.addAll(studentRepository.findAllWithAddressByIds(ids.subList(from, Math.min(from + sliceSize, ids.size()))));
+        }
+        fetchAssociations(loaded);
+
+        Map<Long, Student> byId = new HashMap<>();
+        loaded.forEach(s -> byId.put(s.getId(), s));
+        return byId;
+    }
+
+    // The checks of patch() / applyPatchOn* / ProjectResolver, without applying anything
+    private static void validatePatch(Student s, StudentUpdateDTO dto, Map<Long, Project> projects) {
+
+        if (dto.getVersion() != null) {
+            OptimisticLocks.checkVersion("Student", s.getId(), s.getVersion(), dto.getVersion());
+        }
+
+        AddressDTO address = dto.getAddress();
+        if (address != null && address.getVersion() != null && s.getAddress() != null) {
+            Address a = s.getAddress();
+            OptimisticLocks.checkVersion("Address", a.getId(), a.getVersion(), address.getVersion());
+        }
+
+        if (dto.getPhones() != null) {
+            Map<Long, Phone> existingById = phonesById(s);
+            for (PhoneDTO phone : dto.getPhones()) {
+                if (phone.getId() == null) continue;
+                Phone existing = existingById.get(phone.getId());
+                if (existing == null) {
+                    throw new EntityNotFoundException("Phone not found: " + phone.getId());
+                }
+                if (phone.getVersion() != null) {
+                    OptimisticLocks.checkVersion("Phone", existing.getId(), existing.getVersion(), phone.getVersion());
+                }
+            }
+        }
+
+        if (dto.getProjects() != null) {
+            for (ProjectDTO project : dto.getProjects()) {
+                if (project.getId() == null) continue;
+                Project p = projects.get(project.getId());
+                if (p == null) {
+                    throw new EntityNotFoundException("Project not found: " + project.getId());
+                }
+                if (project.getVersion() != null) {
+                    OptimisticLocks.checkVersion("Project", p.getId(), p.getVersion(), project.getVersion());
+                }
+            }
+        }
+    }
+
+    private static BulkPatchResultDTO patchResult(int index, Long id, BulkPatchResultDTO.Status status, String error) {
+        BulkPatchResultDTO r = new BulkPatchResultDTO();
+        r.setIndex(index);
+        r.setId(id);
+        r.setStatus(status);
+        r.setError(error);
+        return r;
+    }
+
     // =====================================================
     // DELETE
     // =====================================================
+    @Transactional
     public void delete(Long id) {
         Student s = studentRepository.findById(id)
         		.orElseThrow(() -> new EntityNotFoundException("Student not found: " + id));
+        Address address = s.getAddress();
         studentRepository.delete(s);
+        if (address != null) {
+            addressResolver.release(address);		// no REMOVE cascade (rows may be shared), DELETE runs after the student's
+        }
+        changeLog.deleted(id);
+        eventPublisher.publishEvent(StudentChangedEvent.of(StudentChangedEvent.Type.DELETED, id));
     }
 
     // =====================================================
@@ -360,6 +691,10 @@ public class StudentService {
     // =====================================================
     public StudentDTO getFull(Long id) {
 
+        if (appProperties.getRead().getFullFetch() == AppProperties.FullFetchMode.PROJECTION) {
+            return getFullProjected(id);
+        }
+
         studentRepository.findBase(id)
                 .orElseThrow(() -> new EntityNotFoundException("Student not found"));
 
@@ -372,19 +707,28 @@ public class StudentService {
         return StudentMapper.toDTO(s);
     }
 
-    public List<StudentDTO> getByProject(String name) {
-        return studentRepository.findByProjectName(name)
-                .stream().map(StudentMapper::toDTO).toList();
+    // Same result as getFull, without materializing managed entities:
+    // 1 query for student + address + phones, 1 query for projects
+    private StudentDTO getFullProjected(Long id) {
+
+        List<StudentFullRow> rows = studentRepository.findFullRows(id);
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException("Student not found: " + id);
+        }
+
+        return StudentMapper.toDTO(rows, projectRepository.findDTOsByStudent(id));
+    }
+
+    public StudentListView getByProject(String name) {
+        return toDTOs(studentRepository.findByProjectName(Project.normalize(name)), "project");
     }
 
-    public List<StudentDTO> withPhones() {
-        return studentRepository.withPhones()
-                .stream().map(StudentMapper::toDTO).toList();
+    public StudentListView withPhones() {
+        return toDTOs(studentRepository.withPhones(), "with-phones");
     }
 
-    public List<StudentDTO> withoutPhones() {
-        return studentRepository.withoutPhones()
-                .stream().map(StudentMapper::toDTO).toList();
+    public StudentListView withoutPhones() {
+        return toDTOs(studentRepository.withoutPhones(), "without-phones");
     }
 
     public List<ProjectDTO> getProjects(Long id) {
@@ -395,16 +739,6 @@ public class StudentService {
                 .stream().map(StudentMapper::toProjectDTO).toList();
     }
 
-    // =====================================================
-    // OPTIMISTIC LOCK HELPER
-    // =====================================================
-    private void checkVersion(String type, Long entityId, Long currentVersion, Long incomingVersion) {
-
-        if (!Objects.equals(currentVersion, incomingVersion)) {
-        	String msg = String.format("%s %s has version %s but request used %s", type, entityId, currentVersion, incomingVersion);
-            throw new OptimisticLockException(msg);
-        }
-    }
 }
 
 
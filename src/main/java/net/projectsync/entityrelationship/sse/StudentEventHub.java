@@ -0,0 +1,207 @@
+package net.projectsync.entityrelationship.sse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.projectsync.entityrelationship.config.AppProperties;
+import net.projectsync.entityrelationship.dto.StudentEventDTO;
+import net.projectsync.entityrelationship.service.StudentChangedEvent;
+
+/*
+ * Fan-out of committed student changes to SSE subscribers
+ *
+ * - Fed by StudentChangedEvent after commit: ids and change types only, no database read,
+ *   whatever the number of subscribers. Clients re-read a student when they need it
+ *   (GET /{id}/full is served by StudentDTOCache)
+ * - Coalescing: changes are collected per student id and flushed every app.events.coalesce-window,
+ *   a burst of writes on one student becomes ONE entry (DELETED > CREATED > UPDATED)
+ * - One SSE message per subscriber and flush: the list of its entries (at most app.events.max-batch)
+ * - Subscribers watching given ids are found by id, the others (firehose) are filtered one by one
+ * - Slow subscribers are dropped when their bounded queue overflows (see StudentEventSubscriber)
+ *
+ * Metrics: students.events.subscribers, students.events.dropped
+ */
+@Slf4j
+@Component
+public class StudentEventHub implements DisposableBean {
+
+    private static final String EVENT_NAME = "students";
+
+    private final AppProperties.Events config;
+    private final Map<Long, StudentChangedEvent.Type> pending = new ConcurrentHashMap<>();
+    private final Map<Long, Set<StudentEventSubscriber>> byId = new ConcurrentHashMap<>();
+    private final Set<StudentEventSubscriber> firehose = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Counter dropped;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService sender;
+
+    public StudentEventHub(AppProperties appProperties, MeterRegistry meterRegistry) {
+
+        this.config = appProperties.getEvents();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("sse-hub-"));
+        this.sender = Executors.newFixedThreadPool(config.getSenderThreads(), new CustomizableThreadFactory("sse-send-"));
+
+        long window = config.getCoalesceWindow().toMillis();
+        long heartbeat = config.getHeartbeat().toMillis();
+        scheduler.scheduleWithFixedDelay(this::flush, window, window, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("students.events.subscribers", subscribers, AtomicInteger::get)
+                .description("Open SSE connections")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("students.events.dropped")
+                .description("SSE subscribers closed because they could not keep up")
+                .register(meterRegistry);
+    }
+
+    // ids null -> firehose (optionally filtered by types)
+    // null when app.events.max-subscribers is reached
+    public SseEmitter subscribe(Set<Long> ids, Set<StudentChangedEvent.Type> types) {
+
+        if (subscribers.incrementAndGet() > config.getMaxSubscribers()) {
+            subscribers.decrementAndGet();
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(config.getTimeout().toMillis());
+        StudentEventSubscriber subscriber = new StudentEventSubscriber(emitter, ids, types,
+                config.getSubscriberQueue(), sender, this::unregister);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        if (ids == null) {
+            firehose.add(subscriber);
+        } else {
+            ids.forEach(id -> byId.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(subscriber));
+        }
+        subscriber.offer(SseEmitter.event().comment("subscribed"));		// commits the response headers now
+        return emitter;
+    }
+
+    private void unregister(StudentEventSubscriber subscriber) {
+        subscribers.decrementAndGet();
+        if (subscriber.getIds() == null) {
+            firehose.remove(subscriber);
+            return;
+        }
+        for (Long id : subscriber.getIds()) {
+            byId.computeIfPresent(id, (k, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (subscribers.get() == 0) {
+            return;
+        }
+        for (Long id : event.getStudentIds()) {
+            pending.merge(id, event.getType(), StudentEventHub::coalesce);
+        }
+    }
+
+    // The entry must tell what the student is now: gone, new, or changed
+    private static StudentChangedEvent.Type coalesce(StudentChangedEvent.Type previous, StudentChangedEvent.Type next) {
+        if (previous == StudentChangedEvent.Type.DELETED || next == StudentChangedEvent.Type.DELETED) {
+            return StudentChangedEvent.Type.DELETED;
+        }
+        if (previous == StudentChangedEvent.Type.CREATED || next == StudentChangedEvent.Type.CREATED) {
+            return StudentChangedEvent.Type.CREATED;
+        }
+        return StudentChangedEvent.Type.UPDATED;
+    }
+
+    private void flush() {
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            // remove(id) is atomic per key: a change merged meanwhile stays for the next window
+            Map<StudentEventSubscriber, List<StudentEventDTO>> out = new HashMap<>();
+            for (Long id : pending.keySet()) {
+                StudentChangedEvent.Type type = pending.remove(id);
+                if (type == null) continue;
+
+                StudentEventDTO entry = new StudentEventDTO(id, type.name());
+                for (StudentEventSubscriber s : byId.getOrDefault(id, Set.of())) {
+                    if (s.accepts(id, type)) out.computeIfAbsent(s, k -> new ArrayList<>()).add(entry);
+                }
+                for (StudentEventSubscriber s : firehose) {
+                    if (s.accepts(id, type)) out.computeIfAbsent(s, k -> new ArrayList<>()).add(entry);
+                }
+            }
+
+            out.forEach(this::send);
+        } catch (RuntimeException e) {
+            log.warn("SSE flush failed: {}", e.getMessage());		// keeps the scheduled task alive
+        }
+    }
+
+    private void send(StudentEventSubscriber subscriber, List<StudentEventDTO> entries) {
+        int maxBatch = config.getMaxBatch();
+        for (int from = 0; from < entries.size(); from += maxBatch) {
+            List<StudentEventDTO> batch = entries.subList(from, Math.min(from + maxBatch, entries.size()));
+            boolean accepted = subscriber.offer(SseEmitter.event()
+                    .name(EVENT_NAME)
+                    .data(new ArrayList<>(batch), MediaType.APPLICATION_JSON));
+            if (!accepted) {
+                dropped.increment();
+                return;
+            }
+        }
+    }
+
+    private void heartbeat() {
+        try {
+            all().forEach(this::ping);
+        } catch (RuntimeException e) {
+            log.warn("SSE heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private void ping(StudentEventSubscriber subscriber) {
+        if (!subscriber.offer(SseEmitter.event().comment("ping"))) {
+            dropped.increment();
+        }
+    }
+
+    // a subscriber watching several ids is listed once
+    private Set<StudentEventSubscriber> all() {
+        Set<StudentEventSubscriber> all = new HashSet<>(firehose);
+        byId.values().forEach(all::addAll);
+        return all;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        all().forEach(StudentEventSubscriber::close);
+        sender.shutdownNow();
+    }
+}
@@ -0,0 +1,94 @@
+package net.projectsync.entityrelationship.sse;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+import net.projectsync.entityrelationship.service.StudentChangedEvent;
+
+/*
+ * One SSE connection
+ *
+ * - Messages wait in a bounded queue, a single drain task at a time writes them
+ *   (on the hub's sender pool, never on the thread that publishes)
+ * - Queue full -> the subscriber is too slow: it is closed, the client reconnects
+ *   and re-reads what it needs instead of the server buffering without bound
+ */
+class StudentEventSubscriber {
+
+    private final SseEmitter emitter;
+    private final Set<Long> ids;							// null -> every student
+    private final Set<StudentChangedEvent.Type> types;		// null -> every type
+    private final BlockingQueue<SseEventBuilder> queue;
+    private final Executor sender;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Consumer<StudentEventSubscriber> onClose;
+
+    StudentEventSubscriber(SseEmitter emitter, Set<Long> ids, Set<StudentChangedEvent.Type> types,
+                           int queueCapacity, Executor sender, Consumer<StudentEventSubscriber> onClose) {
+        this.emitter = emitter;
+        this.ids = ids;
+        this.types = types;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.sender = sender;
+        this.onClose = onClose;
+    }
+
+    Set<Long> getIds() {
+        return ids;
+    }
+
+    boolean accepts(Long id, StudentChangedEvent.Type type) {
+        return (ids == null || ids.contains(id)) && (types == null || types.contains(type));
+    }
+
+    // false -> queue full, the subscriber has been dropped
+    boolean offer(SseEventBuilder message) {
+        if (closed.get()) {
+            return true;
+        }
+        if (!queue.offer(message)) {
+            close();
+            return false;
+        }
+        if (draining.compareAndSet(false, true)) {
+            sender.execute(this::drain);
+        }
+        return true;
+    }
+
+    private void drain() {
+        try {
+            SseEventBuilder message;
+            while (!closed.get() && (message = queue.poll()) != null) {
+                emitter.send(message);
+            }
+        } catch (IOException | IllegalStateException e) {
+            close();								// connection gone or emitter already completed
+        } finally {
+            draining.set(false);
+            // a message offered after the last poll but before the flag was cleared
+            if (!queue.isEmpty() && !closed.get() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+    }
+
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            queue.clear();
+            onClose.accept(this);
+            try {
+                emitter.complete();
+            } catch (RuntimeException e) {
+                // already completed by the container (timeout, client gone)
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+---------------------------------------------------------------------------------------------
+--------------------  One-off migration: IDENTITY (bigserial) -> pooled sequences -----------
+---------------------------------------------------------------------------------------------
+
+-- Run ONCE against an existing database BEFORE starting the version that uses
+-- @SequenceGenerator. With ddl-auto=update Hibernate would otherwise create the
+-- sequences starting at 1 and collide with the existing ids.
+--
+-- Rules:
+--   - INCREMENT BY must equal allocationSize (50) of the @SequenceGenerator
+--   - pooled-lo optimizer: nextval() returns the FIRST id of a block of 50,
+--     so the sequence must start right after the current max(id)
+--   - the old column default / identity is dropped so only Hibernate assigns ids
+
+SET search_path TO entityrelationship;
+
+BEGIN;
+
+-- student
+CREATE SEQUENCE IF NOT EXISTS student_seq INCREMENT BY 50;
+SELECT setval('student_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM student), false);
+ALTER TABLE student ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE student ALTER COLUMN id DROP IDENTITY IF EXISTS;
+DROP SEQUENCE IF EXISTS student_id_seq;
+
+-- address
+CREATE SEQUENCE IF NOT EXISTS address_seq INCREMENT BY 50;
+SELECT setval('address_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM address), false);
+ALTER TABLE address ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE address ALTER COLUMN id DROP IDENTITY IF EXISTS;
+DROP SEQUENCE IF EXISTS address_id_seq;
+
+-- phone
+CREATE SEQUENCE IF NOT EXISTS phone_seq INCREMENT BY 50;
+SELECT setval('phone_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM phone), false);
+ALTER TABLE phone ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE phone ALTER COLUMN id DROP IDENTITY IF EXISTS;
+DROP SEQUENCE IF EXISTS phone_id_seq;
+
+-- project
+CREATE SEQUENCE IF NOT EXISTS project_seq INCREMENT BY 50;
+SELECT setval('project_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM project), false);
+ALTER TABLE project ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE project ALTER COLUMN id DROP IDENTITY IF EXISTS;
+DROP SEQUENCE IF EXISTS project_id_seq;
+
+COMMIT;
+
+-- Verify (each should be > max(id) of its table):
+-- SELECT last_value, is_called FROM student_seq;
@@ -0,0 +1,49 @@
+---------------------------------------------------------------------------------------------
+--------------------  One-off migration: app.addresses.shared=true on an existing database --
+---------------------------------------------------------------------------------------------
+
+-- Run ONCE before enabling app.addresses.shared on a database created while
+-- Student.address was a @OneToOne. Hibernate 5 put a unique constraint on the
+-- owning join column (student.address_id); ddl-auto=update never drops constraints,
+-- so the second student referencing a shared address row would fail with a
+-- unique violation.
+--
+-- Rules:
+--   - the constraint name is generated by Hibernate (UK_<hash>): it is looked up
+--     in pg_constraint, every UNIQUE constraint on exactly (address_id) is dropped
+--   - idx_student_address_id (non unique, created by ddl-auto=update) keeps the
+--     lookups of AddressResolver.release indexed
+--   - safe to run again: nothing is dropped the second time
+
+SET search_path TO entityrelationship;
+
+BEGIN;
+
+DO $$
+DECLARE
+    c record;
+BEGIN
+    FOR c IN
+        SELECT con.conname
+        FROM pg_constraint con
+        JOIN pg_class rel ON rel.oid = con.conrelid
+        JOIN pg_namespace ns ON ns.oid = rel.relnamespace
+        WHERE ns.nspname = 'entityrelationship'
+          AND rel.relname = 'student'
+          AND con.contype = 'u'
+          AND con.conkey = ARRAY[(SELECT attnum FROM pg_attribute
+                                  WHERE attrelid = rel.oid AND attname = 'address_id')]
+    LOOP
+        EXECUTE format('ALTER TABLE student DROP CONSTRAINT %I', c.conname);
+        RAISE NOTICE 'dropped %', c.conname;
+    END LOOP;
+END
+$$;
+
+CREATE INDEX IF NOT EXISTS idx_student_address_id ON student (address_id);
+
+COMMIT;
+
+-- Verify (no UNIQUE constraint listed on address_id):
+-- SELECT conname, pg_get_constraintdef(oid) FROM pg_constraint
+-- WHERE conrelid = 'entityrelationship.student'::regclass AND contype = 'u';
@@ -0,0 +1,79 @@
+package net.projectsync.entityrelationship.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import net.projectsync.entityrelationship.dto.StudentCreateDTO;
+import net.projectsync.entityrelationship.dto.StudentDTO;
+import net.projectsync.entityrelationship.dto.StudentUpdateDTO;
+
+/*
+ * If-Match on PUT / PATCH: a stale ETag is a failed precondition (412),
+ * not a version conflict (409), and the commuting PATCH path does not retry it
+ * WebTestClient (spring-webflux is on the classpath): the JDK client used by TestRestTemplate has no PATCH
+ */
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StudentPreconditionTest {
+
+    private static final String STALE_ETAG = "\"42-0-0-0-0-0-0-0-0\"";
+
+    @Autowired
+    private WebTestClient client;
+
+    private StudentDTO student;
+    private String etag;
+
+    @BeforeEach
+    void createStudent() {
+        StudentCreateDTO dto = new StudentCreateDTO();
+        dto.setFirstName("Ada");
+        dto.setLastName("Lovelace");
+        dto.setEmail("ada@example.org");
+
+        student = client.post().uri("/api/v1/students").bodyValue(dto)
+                .exchange().expectStatus().isOk()
+                .expectBody(StudentDTO.class).returnResult().getResponseBody();
+        etag = client.get().uri("/api/v1/students/{id}", student.getId())
+                .exchange().expectStatus().isOk()
+                .returnResult(String.class).getResponseHeaders().getETag();
+    }
+
+    @Test
+    void patchWithStaleETagFailsPrecondition() {
+        client.patch().uri("/api/v1/students/{id}", student.getId())
+                .header("If-Match", STALE_ETAG).bodyValue(lastName("Byron"))
+                .exchange().expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void patchWithCurrentETagSucceeds() {
+        client.patch().uri("/api/v1/students/{id}", student.getId())
+                .header("If-Match", etag).bodyValue(lastName("Byron"))
+                .exchange().expectStatus().isOk();
+    }
+
+    @Test
+    void putWithStaleETagFailsPrecondition() {
+        StudentUpdateDTO dto = lastName("Byron");
+        dto.setFirstName("Ada");
+        dto.setEmail("ada@example.org");
+        dto.setVersion(student.getVersion());
+
+        client.put().uri("/api/v1/students/{id}", student.getId())
+                .header("If-Match", STALE_ETAG).bodyValue(dto)
+                .exchange().expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    private static StudentUpdateDTO lastName(String lastName) {
+        StudentUpdateDTO dto = new StudentUpdateDTO();
+        dto.setLastName(lastName);
+        return dto;
+    }
+}
@@ -0,0 +1,41 @@
+package net.projectsync.entityrelationship.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import com.zaxxer.hikari.HikariDataSource;
+import net.projectsync.entityrelationship.config.AppProperties;
+
+/*
+ * The primary Hikari pool follows app.execution.jdbc-threads: raising the executor alone
+ * still leaves connection-headroom connections for the work outside it
+ */
+class ConnectionPoolSizingTest {
+
+    @Test
+    void poolGrowsWithJdbcThreads() {
+        AppProperties.Execution execution = execution(30, 6);
+        HikariDataSource dataSource = new HikariDataSource();		// maximum-pool-size not configured, pool not started
+
+        ConnectionPoolSizing.size(dataSource, execution);
+
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(36);
+    }
+
+    @Test
+    void largerConfiguredPoolIsKept() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(50);
+
+        ConnectionPoolSizing.size(dataSource, execution(10, 6));
+
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(50);
+    }
+
+    private static AppProperties.Execution execution(int jdbcThreads, int connectionHeadroom) {
+        AppProperties.Execution execution = new AppProperties.Execution();
+        execution.setJdbcThreads(jdbcThreads);
+        execution.setConnectionHeadroom(connectionHeadroom);
+        return execution;
+    }
+}
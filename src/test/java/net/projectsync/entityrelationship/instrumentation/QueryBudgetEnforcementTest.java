@@ -0,0 +1,170 @@
+package net.projectsync.entityrelationship.instrumentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import net.projectsync.entityrelationship.dto.AddressDTO;
+import net.projectsync.entityrelationship.dto.PhoneDTO;
+import net.projectsync.entityrelationship.dto.ProjectDTO;
+import net.projectsync.entityrelationship.dto.StudentCreateDTO;
+import net.projectsync.entityrelationship.dto.StudentDTO;
+import net.projectsync.entityrelationship.mapper.StudentListView;
+import net.projectsync.entityrelationship.service.StudentService;
+
+/*
+ * app.instrumentation.enforce-budgets=true (test profile): an endpoint running more
+ * statements than its @QueryBudget fails the request, the one within budget does not
+ * Real endpoint: /with-phones on students with address, phones and projects spanning
+ * several slices of app.read.in-clause-size (5 in the test profile)
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class QueryBudgetEnforcementTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    void overBudgetEndpointFails() {
+        ResponseEntity<String> response = rest.getForEntity("/api/test/budget/over", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    void withinBudgetEndpointSucceeds() {
+        ResponseEntity<String> response = rest.getForEntity("/api/test/budget/within", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst("X-Sql-Statements")).isEqualTo("1");
+    }
+
+    // /with-phones: students + address, then phones and projects per slice of app.read.in-clause-size=5
+    // budget 3 + 2 per further slice (@QueryBudget on StudentController.withPhones)
+    @Test
+    void withPhonesStaysWithinItsBudgetAcrossSlices() {
+        seedStudentsWithPhones(7);
+
+        ResponseEntity<StudentDTO[]> response = rest.getForEntity("/api/v1/students/with-phones", StudentDTO[].class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        int slices = (response.getBody().length + 4) / 5;
+        assertThat(slices).isGreaterThanOrEqualTo(2);
+        assertThat(response.getHeaders().getFirst("X-Sql-Statements")).isEqualTo(String.valueOf(1 + 2 * slices));
+    }
+
+    // same load with a flat budget of 3: the second slice does not fit
+    @Test
+    void withPhonesOverFlatBudgetFails() {
+        seedStudentsWithPhones(7);
+
+        ResponseEntity<String> response = rest.getForEntity("/api/test/budget/with-phones-flat", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private void seedStudentsWithPhones(int count) {
+        for (int i = 0; i < count; i++) {
+            StudentCreateDTO dto = new StudentCreateDTO();
+            dto.setFirstName("Student" + i);
+            dto.setLastName("Budget");
+            dto.setEmail("student" + i + "@budget.test");
+
+            AddressDTO address = new AddressDTO();
+            address.setHouseName("House " + i);
+            address.setCity("Pune");
+            dto.setAddress(address);
+
+            PhoneDTO phone = new PhoneDTO();
+            phone.setPhoneModel("Model " + i);
+            phone.setPhoneNumber("555-010" + i);
+            dto.setPhones(List.of(phone));
+
+            ProjectDTO project = new ProjectDTO();
+            project.setProjectName("Budget project " + (i % 2));
+            dto.setProjects(List.of(project));
+
+            assertThat(rest.postForEntity("/api/v1/students", dto, String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+    }
+
+    // StudentListView is not a Collection: its slices must still count (statementsPerSlice)
+    @Test
+    void listViewBodyGetsBudgetPerSlice() {
+        ResponseEntity<String> response = rest.getForEntity("/api/test/budget/sliced", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst("X-Sql-Statements")).isEqualTo("2");
+    }
+
+    @TestConfiguration
+    static class BudgetEndpoints {
+
+        @Bean
+        BudgetController budgetController(JdbcTemplate jdbcTemplate, StudentService studentService) {
+            return new BudgetController(jdbcTemplate, studentService);
+        }
+    }
+
+    @RestController
+    static class BudgetController {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final StudentService studentService;
+
+        BudgetController(JdbcTemplate jdbcTemplate, StudentService studentService) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.studentService = studentService;
+        }
+
+        @GetMapping("/api/test/budget/with-phones-flat")
+        @QueryBudget(statements = 3)
+        public StudentListView withPhonesFlat() {
+            return studentService.withPhones();
+        }
+
+        @GetMapping("/api/test/budget/over")
+        @QueryBudget(statements = 1)
+        public Map<String, Integer> over() {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            jdbcTemplate.queryForObject("SELECT 2", Integer.class);
+            return Map.of("statements", 2);
+        }
+
+        // 2 statements, 6 elements = 2 slices of app.read.in-clause-size=5 -> budget 1 + 1
+        @GetMapping("/api/test/budget/sliced")
+        @QueryBudget(statements = 1, statementsPerSlice = 1)
+        public StudentListView sliced() {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            jdbcTemplate.queryForObject("SELECT 2", Integer.class);
+            List<StudentDTO> students = new ArrayList<>();
+            for (long id = 1; id <= 6; id++) {
+                StudentDTO dto = new StudentDTO();
+                dto.setId(id);
+                students.add(dto);
+            }
+            return StudentListView.ofDTOs(students);
+        }
+
+        @GetMapping("/api/test/budget/within")
+        @QueryBudget(statements = 1)
+        public Map<String, Integer> within() {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            return Map.of("statements", 1);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package net.projectsync.entityrelationship.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.projectsync.entityrelationship.model.Address;
+import net.projectsync.entityrelationship.model.Phone;
+import net.projectsync.entityrelationship.model.Project;
+import net.projectsync.entityrelationship.model.Student;
+
+/*
+ * app.read.direct-json must not change the response: StudentJsonWriter / StudentListView
+ * produce exactly what Jackson writes for StudentMapper.toDTO(s)
+ */
+class StudentJsonWriterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();	// same defaults as the application's
+
+    @Test
+    void writesSameJsonAsMappedDTO() throws IOException {
+        Student s = student(1L, "Ada", "Lovelace", address(), project(7L, "Analytical \"Engine\""), project(8L, "Notes"));
+        addPhone(s, 3L, "Nokia", "+44 20 7946 0000");
+        addPhone(s, 4L, null, "+44 20 7946 0001");
+
+        assertThat(write(s)).isEqualTo(objectMapper.writeValueAsString(StudentMapper.toDTO(s)));
+    }
+
+    @Test
+    void writesNullsLikeMappedDTO() throws IOException {
+        Student s = student(2L, "Grace", null, null);
+        s.setEmail(null);
+
+        assertThat(write(s)).isEqualTo(objectMapper.writeValueAsString(StudentMapper.toDTO(s)));
+    }
+
+    @Test
+    void sharedProjectRenderedOnceKeepsItsLatestVersion() throws IOException {
+        Project shared = project(7L, "Compiler");
+        Student first = student(1L, "Grace", "Hopper", null, shared);
+        Student second = student(2L, "Jean", "Sammet", null, shared);
+
+        StringWriter out = new StringWriter();
+        StudentJsonWriter writer = new StudentJsonWriter();
+        try (JsonGenerator g = objectMapper.getFactory().createGenerator(out)) {
+            writer.write(g, first);
+            g.flush();
+            shared.setProjectName("COBOL");
+            shared.setVersion(shared.getVersion() + 1);		// re-rendered: cached per (id, version)
+            out.getBuffer().setLength(0);
+            writer.write(g, second);
+        }
+
+        assertThat(out.toString().trim()).isEqualTo(objectMapper.writeValueAsString(StudentMapper.toDTO(second)));
+    }
+
+    @Test
+    void listViewOfEntitiesWritesSameArrayAsMappedDTOs() throws IOException {
+        Project shared = project(7L, "Compiler");
+        List<Student> students = List.of(
+                student(1L, "Grace", "Hopper", address(), shared),
+                student(2L, "Jean", "Sammet", null, shared));
+
+        String direct = objectMapper.writeValueAsString(StudentListView.ofEntities(students));
+        String mapped = objectMapper.writeValueAsString(StudentListView.ofEntities(students).toDTOs());
+
+        assertThat(direct).isEqualTo(mapped);
+        assertThat(objectMapper.writeValueAsString(StudentListView.ofDTOs(StudentListView.ofEntities(students).toDTOs())))
+                .isEqualTo(mapped);
+    }
+
+    private String write(Student s) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator g = objectMapper.getFactory().createGenerator(out)) {
+            new StudentJsonWriter().write(g, s);
+        }
+        return out.toString();
+    }
+
+    private static Student student(Long id, String firstName, String lastName, Address address, Project... projects) {
+        Student s = new Student();
+        s.setId(id);
+        s.setVersion(0L);
+        s.setFirstName(firstName);
+        s.setLastName(lastName);
+        s.setEmail(firstName.toLowerCase() + "@example.org");
+        s.setAddress(address);
+        s.getProjects().addAll(List.of(projects));
+        return s;
+    }
+
+    private static Address address() {
+        Address a = new Address();
+        a.setId(5L);
+        a.setVersion(2L);
+        a.setHouseName("Ockham Park");
+        a.setStreetNo("12");
+        a.setCity("London");
+        a.setCountry("UK");
+        return a;
+    }
+
+    private static Project project(Long id, String name) {
+        Project p = new Project();
+        p.setId(id);
+        p.setVersion(1L);
+        p.setProjectName(name);
+        return p;
+    }
+
+    private static void addPhone(Student s, Long id, String model, String number) {
+        Phone p = new Phone();
+        p.setId(id);
+        p.setVersion(0L);
+        p.setPhoneModel(model);
+        p.setPhoneNumber(number);
+        p.setStudent(s);
+        s.getPhones().add(p);
+    }
+}
@@ -0,0 +1,22 @@
+package net.projectsync.entityrelationship.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/*
+ * Bad input on the reactive read API is a client error, as on the MVC endpoints:
+ * the routes of ReactiveApiConfig answer 400 for a non-numeric {id}, before any R2DBC call
+ */
+class StudentReactiveHandlerTest {
+
+    private final WebTestClient client = WebTestClient
+            .bindToRouterFunction(new ReactiveApiConfig().studentReactiveRoutes(null))		// repository never reached
+            .build();
+
+    @Test
+    void nonNumericIdIsBadRequest() {
+        client.get().uri("/api/v1/students/abc/full")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
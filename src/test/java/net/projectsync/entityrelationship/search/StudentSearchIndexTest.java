@@ -0,0 +1,82 @@
+package net.projectsync.entityrelationship.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StudentSearchIndexTest {
+
+    private StudentSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new StudentSearchIndex(new SimpleMeterRegistry());
+        index.putAll(List.of(
+                doc(1, "Ann", "Lee", "ann.lee@x.org", 10L, "Alpha Centauri"),
+                doc(2, "Annika", "Berg", "annika@y.org", 10L, "Alpha Centauri"),
+                doc(3, "Bob", "Annan", "bob@x.org", 20L, "Beta")));
+    }
+
+    @Test
+    void termMatchesEveryTokenItIsAPrefixOf() {
+        assertThat(index.search("ann", 10)).containsExactly(1, 2, 3);		// ann, annika, annan
+        assertThat(index.search("anni", 10)).containsExactly(2);
+        assertThat(index.search("nn", 10)).isEmpty();							// prefix, not substring
+    }
+
+    @Test
+    void queryIsCaseInsensitiveAndSplitOnPunctuation() {
+        assertThat(index.search("ANN.LEE", 10)).containsExactly(1);
+        assertThat(index.search("x org", 10)).containsExactly(1, 3);
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        assertThat(index.search("ann alp", 10)).containsExactly(1, 2);		// Bob Annan is not in Alpha
+        assertThat(index.search("ann bet", 10)).containsExactly(3);
+        assertThat(index.search("ann gamma", 10)).isEmpty();
+    }
+
+    @Test
+    void resultIsCappedAtLimit() {
+        assertThat(index.search("ann", 2)).containsExactly(1, 2);
+    }
+
+    @Test
+    void reindexedStudentLosesItsOldTokens() {
+        index.putAll(List.of(doc(1, "Ann", "Smith", "ann.smith@x.org", 20L, "Beta")));
+
+        assertThat(index.search("lee", 10)).isEmpty();
+        assertThat(index.search("smith", 10)).containsExactly(1);
+        assertThat(index.search("alpha", 10)).containsExactly(2);
+        assertThat(index.search("beta", 10)).containsExactly(1, 3);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void projectRenameIsSeenByEveryLinkedStudent() {
+        // one linked student re-indexed with the new name of the shared project
+        index.putAll(List.of(doc(1, "Ann", "Lee", "ann.lee@x.org", 10L, "Gamma Ray")));
+
+        assertThat(index.search("gamma", 10)).containsExactly(1, 2);
+        assertThat(index.search("centauri", 10)).isEmpty();
+    }
+
+    @Test
+    void removedStudentNoLongerMatches() {
+        index.removeAll(List.of(1L, 2L));
+
+        assertThat(index.search("ann", 10)).containsExactly(3);
+        assertThat(index.search("alpha", 10)).isEmpty();		// no student left in the project
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private static StudentDocument doc(long id, String firstName, String lastName, String email, Long projectId, String projectName) {
+        StudentDocument doc = new StudentDocument(id, firstName, lastName, email);
+        doc.getProjects().put(projectId, projectName);
+        return doc;
+    }
+}
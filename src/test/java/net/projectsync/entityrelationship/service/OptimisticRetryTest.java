@@ -0,0 +1,80 @@
+package net.projectsync.entityrelationship.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import net.projectsync.entityrelationship.config.AppProperties;
+
+/*
+ * Only a commuting request that lost the race at commit is re-run,
+ * stale versions and If-Match failures go straight back to the client
+ */
+class OptimisticRetryTest {
+
+    private OptimisticRetry retry;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getWrite().getRetry().setMaxAttempts(3);
+        appProperties.getWrite().getRetry().setInitialBackoff(Duration.ZERO);
+        appProperties.getWrite().getRetry().setMaxBackoff(Duration.ZERO);
+        retry = new OptimisticRetry(appProperties);
+    }
+
+    @Test
+    void commutingWorkIsRetriedAfterCommitConflict() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute("Student", true, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("lost the race");
+            }
+            return "patched";
+        });
+
+        assertThat(result).isEqualTo("patched");
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void commutingWorkGivesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.execute("Student", true, () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("lost the race");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void nonCommutingWorkIsNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.execute("Student", false, () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("lost the race");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void preconditionFailureIsNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.execute("Student", true, () -> {
+            attempts.incrementAndGet();
+            throw new PreconditionFailedException("If-Match did not match");
+        })).isInstanceOf(PreconditionFailedException.class);
+
+        assertThat(attempts).hasValue(1);
+    }
+}
@@ -0,0 +1,53 @@
+package net.projectsync.entityrelationship.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import net.projectsync.entityrelationship.dto.StudentCreateDTO;
+import net.projectsync.entityrelationship.dto.StudentDTO;
+
+/*
+ * The StudentDTO cache is keyed by id and version: a write this instance published no event for
+ * (another node, the merge-projects runner, plain SQL here) is not served from the cache
+ */
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StudentDTOCacheTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void writeWithoutInvalidationIsNotServedFromCache() {
+        StudentCreateDTO dto = new StudentCreateDTO();
+        dto.setFirstName("Ada");
+        dto.setLastName("Lovelace");
+        dto.setEmail("ada.cache@example.org");
+        Long id = client.post().uri("/api/v1/students").bodyValue(dto)
+                .exchange().expectStatus().isOk()
+                .expectBody(StudentDTO.class).returnResult().getResponseBody().getId();
+
+        assertThat(get(id).getLastName()).isEqualTo("Lovelace");		// cached from here on
+        assertThat(get(id).getLastName()).isEqualTo("Lovelace");
+
+        jdbc.update("UPDATE entityrelationship.student SET last_name = 'Byron', version = version + 1 WHERE id = ?", id);
+
+        assertThat(get(id).getLastName()).isEqualTo("Byron");
+    }
+
+    private StudentDTO get(Long id) {
+        return client.get().uri("/api/v1/students/{id}", id)
+                .exchange().expectStatus().isOk()
+                .expectBody(StudentDTO.class).returnResult().getResponseBody();
+    }
+}